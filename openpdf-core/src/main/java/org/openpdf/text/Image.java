@@ -68,8 +68,11 @@ import org.openpdf.text.pdf.codec.CCITTG4Encoder;
 import java.awt.Graphics2D;
 import java.awt.color.ICC_Profile;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
 import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
@@ -82,6 +85,8 @@ import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 
 /**
@@ -623,6 +628,44 @@ public abstract class Image extends Rectangle {
         return new ImageInput(filename).getInstance();
     }
 
+    /**
+     * Gets an instance of an Image whose data stays in the file. Only the header of a JPEG or JPEG 2000 file is read
+     * here; its data is streamed from the file into the PDF when the image is written, so it is never held in memory.
+     * Other formats and files that are not local are loaded like {@link #getInstance(String)}.
+     * <p>
+     * The file must exist, with the same content, until the image has been added to the document or to a
+     * {@link PdfContentByte}, which is when its data is written. Adding the image fails if the file was deleted or
+     * changed in size; a file that was rewritten with the same size is embedded with its new content. Use
+     * {@link #getInstance(String)} for files that may change or be deleted before that.
+     * <p>
+     * The same security considerations apply as for {@link #getInstance(String)}.
+     *
+     * @param filename a filename
+     * @return the image
+     * @throws BadElementException if error in creating the image
+     * @throws IOException         if the image is not recognized
+     */
+    public static Image getStreamedInstance(String filename) throws BadElementException, IOException {
+        URL url = Utilities.toURL(filename);
+        if (!"file".equals(url.getProtocol())) {
+            return getInstance(url);
+        }
+        int[] array;
+        try (InputStream is = url.openStream()) {
+            array = readFirst8Chars(is);
+        }
+        Image img;
+        if (isJpeg(array)) {
+            img = new Jpeg(url);
+        } else if (isJpeg2000(array)) {
+            img = new Jpeg2000(url);
+        } else {
+            return getInstance(url);
+        }
+        img.setUrl(url);
+        return img;
+    }
+
     /**
      * Gets an instance of an Image from the classpath.
      *
@@ -884,6 +927,13 @@ public abstract class Image extends Rectangle {
 
                 return img;
             }
+
+            if (!forceBW) {
+                Image img = getOpaqueInstance(bi);
+                if (img != null) {
+                    return img;
+                }
+            }
         }
 
         java.awt.image.PixelGrabber pg = new java.awt.image.PixelGrabber(image,
@@ -1047,6 +1097,85 @@ public abstract class Image extends Rectangle {
         }
     }
 
+    /**
+     * Converts an opaque <CODE>BufferedImage</CODE> of a common type by reading its rows from the raster, compressing
+     * them as they are read. Neither the pixels nor the uncompressed data are held in full, and no mask is made. The
+     * data is compressed with the default compression level.
+     *
+     * @param bi the image
+     * @return the image, or <CODE>null</CODE> if the image needs to be converted from its ARGB pixels
+     * @throws BadElementException on error
+     * @throws IOException         on error
+     */
+    private static Image getOpaqueInstance(BufferedImage bi) throws BadElementException, IOException {
+        int type = bi.getType();
+        if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB
+                && type != BufferedImage.TYPE_3BYTE_BGR && type != BufferedImage.TYPE_BYTE_GRAY) {
+            return null;
+        }
+        Raster raster = bi.getRaster();
+        int w = bi.getWidth();
+        int h = bi.getHeight();
+        if (type == BufferedImage.TYPE_INT_ARGB && !isOpaque(raster, w, h)) {
+            return null;
+        }
+        int components = type == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+        byte[] gray = null;
+        if (type == BufferedImage.TYPE_BYTE_GRAY) {
+            // the gray of the image is linear, the gray of the sRGB pixels is kept
+            ColorModel cm = bi.getColorModel();
+            gray = new byte[256];
+            for (int k = 0; k < gray.length; ++k) {
+                gray[k] = (byte) cm.getRGB(k);
+            }
+        }
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater();
+        try (DeflaterOutputStream zip = new DeflaterOutputStream(data, deflater, 0x8000)) {
+            byte[] row = new byte[w * components];
+            Object elements = null;
+            for (int y = 0; y < h; ++y) {
+                elements = raster.getDataElements(0, y, w, 1, elements);
+                if (elements instanceof int[] pixels) {
+                    for (int x = 0, k = 0; x < w; ++x) {
+                        int pixel = pixels[x];
+                        row[k++] = (byte) (pixel >> 16);
+                        row[k++] = (byte) (pixel >> 8);
+                        row[k++] = (byte) pixel;
+                    }
+                    zip.write(row);
+                } else if (gray != null) {
+                    byte[] pixels = (byte[]) elements;
+                    for (int x = 0; x < w; ++x) {
+                        row[x] = gray[pixels[x] & 0xff];
+                    }
+                    zip.write(row);
+                } else {
+                    // the data elements of the bgr raster are in rgb order
+                    zip.write((byte[]) elements);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        Image img = Image.getInstance(w, h, components, 8, data.toByteArray());
+        img.setDeflated(true);
+        return img;
+    }
+
+    private static boolean isOpaque(Raster raster, int w, int h) {
+        int[] pixels = null;
+        for (int y = 0; y < h; ++y) {
+            pixels = (int[]) raster.getDataElements(0, y, w, 1, pixels);
+            for (int x = 0; x < w; ++x) {
+                if ((pixels[x] >>> 24) != 0xff) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Generates PDF-compliant pixel data for indexed color images (IndexColorModel).
      * <p>
@@ -1172,21 +1301,30 @@ public abstract class Image extends Rectangle {
      */
     public static Image getInstance(PdfContentByte cb, java.awt.Image awtImage, float quality)
             throws BadElementException, IOException {
-        java.awt.image.PixelGrabber pg = new java.awt.image.PixelGrabber(awtImage,
-                0, 0, -1, -1, true);
-        try {
-            pg.grabPixels();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // preserve interrupt status
-            throw new IOException(
-                    MessageLocalization.getComposedMessage("java.awt.image.interrupted.waiting.for.pixels"), e);
-        }
+        int w;
+        int h;
+        if (awtImage instanceof BufferedImage bi) {
+            // the size is known without grabbing the pixels
+            w = bi.getWidth();
+            h = bi.getHeight();
+        } else {
+            java.awt.image.PixelGrabber pg = new java.awt.image.PixelGrabber(awtImage,
+                    0, 0, -1, -1, true);
+            try {
+                pg.grabPixels();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // preserve interrupt status
+                throw new IOException(
+                        MessageLocalization.getComposedMessage("java.awt.image.interrupted.waiting.for.pixels"), e);
+            }
 
-        if ((pg.getStatus() & java.awt.image.ImageObserver.ABORT) != 0) {
-            throw new IOException(MessageLocalization.getComposedMessage("java.awt.image.fetch.aborted.or.errored"));
+            if ((pg.getStatus() & java.awt.image.ImageObserver.ABORT) != 0) {
+                throw new IOException(
+                        MessageLocalization.getComposedMessage("java.awt.image.fetch.aborted.or.errored"));
+            }
+            w = pg.getWidth();
+            h = pg.getHeight();
         }
-        int w = pg.getWidth();
-        int h = pg.getHeight();
         PdfTemplate tp = cb.createTemplate(w, h);
         Graphics2D g2d = tp.createGraphics(w, h, true, quality);
         g2d.drawImage(awtImage, 0, 0, null);
@@ -436,6 +436,26 @@ public abstract class BaseFont {
                 BaseFont.NOT_EMBEDDED);
     }
 
+    /**
+     * Sets the total size in bytes of the TrueType font subsets kept for reuse by all fonts. Documents made from the
+     * same template then embed the subsets made for the first one instead of subsetting the font again. The default
+     * is 8 MB, 0 switches the cache off.
+     *
+     * @param size the maximum total size in bytes
+     */
+    public static void setFontSubsetCacheSize(long size) {
+        TrueTypeFont.setSubsetCacheSize(size);
+    }
+
+    /**
+     * Returns the total size in bytes of the TrueType font subsets kept for reuse by all fonts
+     *
+     * @return the maximum total size in bytes
+     */
+    public static long getFontSubsetCacheSize() {
+        return TrueTypeFont.getSubsetCacheSize();
+    }
+
     /**
      * Creates a new font. This font can be one of the 14 built in types, a Type1 font referred to by an AFM or PFM
      * file, a TrueType font (simple or collection) or a CJK font from the Adobe Asian Font Pack. TrueType fonts and CJK
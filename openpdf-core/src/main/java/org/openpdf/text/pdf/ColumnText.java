@@ -61,6 +61,7 @@ import org.openpdf.text.SimpleTable;
 import org.openpdf.text.error_messages.MessageLocalization;
 import org.openpdf.text.pdf.draw.DrawInterface;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
@@ -305,6 +306,21 @@ public class ColumnText {
      */
     private float customFirstLineBaselineY = Float.NaN;
 
+    /**
+     * If true, the next simulation records the lines it lays out.
+     */
+    private boolean recordLines;
+
+    /**
+     * The lines recorded by the last simulation, see {@link #setRecordLines(boolean)}.
+     */
+    private LineLayout recordedLines;
+
+    /**
+     * Lines to write by the next call of <CODE>go</CODE> instead of laying them out again.
+     */
+    private LineLayout linesToReplay;
+
     /**
      * Creates a <CODE>ColumnText</CODE>.
      *
@@ -994,10 +1010,31 @@ public class ColumnText {
         if (composite) {
             return goComposite(simulate);
         }
-        addWaitingPhrase();
-        if (bidiLine == null) {
-            return NO_MORE_TEXT;
+        LineLayout replay = linesToReplay;
+        linesToReplay = null;
+        if (replay != null && !canReplay(replay)) {
+            replay = null;
+        }
+        if (replay != null) {
+            // the lines replace the text they were laid out from
+            bidiLine = null;
+            waitPhrase = null;
+        } else {
+            addWaitingPhrase();
+            if (bidiLine == null) {
+                return NO_MORE_TEXT;
+            }
         }
+        recordedLines = null;
+        List<PdfLine> recording = null;
+        List<Float> recordedLeadings = null;
+        boolean startedWithNewline = lastWasNewline;
+        if (simulate && recordLines && replay == null && rectangularMode
+                && Float.isNaN(customFirstLineBaselineY)) {
+            recording = new ArrayList<>();
+            recordedLeadings = new ArrayList<>();
+        }
+        int replayed = 0;
         descender = 0;
         linesWritten = 0;
         boolean dirty = false;
@@ -1037,17 +1074,21 @@ public class ColumnText {
             if (rectangularMode) {
                 if (rectangularWidth <= firstIndent + rightIndent) {
                     status = NO_MORE_COLUMN;
-                    if (bidiLine.isEmpty()) {
+                    if (replay != null ? replayed == replay.lines.length : bidiLine.isEmpty()) {
                         status |= NO_MORE_TEXT;
                     }
                     break;
                 }
-                if (bidiLine.isEmpty()) {
+                if (replay != null ? replayed == replay.lines.length : bidiLine.isEmpty()) {
                     status = NO_MORE_TEXT;
                     break;
                 }
-                line = bidiLine.processLine(leftX, rectangularWidth - firstIndent - rightIndent, alignment,
-                        localRunDirection, arabicOptions, strictWordWrapping);
+                if (replay != null) {
+                    line = replay.lines[replayed++];
+                } else {
+                    line = bidiLine.processLine(leftX, rectangularWidth - firstIndent - rightIndent, alignment,
+                            localRunDirection, arabicOptions, strictWordWrapping);
+                }
                 if (line == null) {
                     status = NO_MORE_TEXT;
                     break;
@@ -1078,6 +1119,15 @@ public class ColumnText {
                     }
                     yLine -= currentLeading;
                 }
+                if (recording != null) {
+                    if (hasTab(line)) {
+                        // tab positions depend on the left edge of the column
+                        recording = null;
+                    } else {
+                        recording.add(line);
+                        recordedLeadings.add(currentLeading);
+                    }
+                }
                 
                 if (!simulate && !dirty) {
                     text.beginText();
@@ -1138,9 +1188,106 @@ public class ColumnText {
                 canvas.add(text);
             }
         }
+        if (recording != null && status == NO_MORE_TEXT) {
+            float[] leadings = new float[recordedLeadings.size()];
+            for (int k = 0; k < leadings.length; ++k) {
+                leadings[k] = recordedLeadings.get(k);
+            }
+            recordedLines = new LineLayout(rectangularWidth, startedWithNewline,
+                    recording.toArray(new PdfLine[0]), leadings);
+        }
         return status;
     }
 
+    /**
+     * Checks if the recorded lines can be written into the current column exactly as <CODE>go</CODE> would lay
+     * them out: the column has the same width and all lines fit.
+     */
+    private boolean canReplay(LineLayout layout) {
+        // the width differs by rounding errors when the column was moved
+        if (composite || !rectangularMode || Math.abs(rectangularWidth - layout.width) > 0.001f
+                || lastWasNewline != layout.startsWithNewline || !Float.isNaN(customFirstLineBaselineY)) {
+            return false;
+        }
+        // repeat the arithmetic of the layout loop, so rounding cannot make a line overflow
+        float y = yLine;
+        for (int k = 0; k < layout.lines.length; ++k) {
+            float leading = layout.leadings[k];
+            if (y > maxY || y - leading < minY) {
+                return false;
+            }
+            y -= leading;
+            y -= layout.lines[k].isNewlineSplit() ? extraParagraphSpace : 0;
+        }
+        return true;
+    }
+
+    private static boolean hasTab(PdfLine line) {
+        for (Iterator<?> it = line.iterator(); it.hasNext(); ) {
+            if (((PdfChunk) it.next()).isTab()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes the next simulation record the lines it lays out, as long as they only depend on the width of the
+     * column. They can be written afterwards without laying them out again, see {@link #getRecordedLines()}.
+     *
+     * @param recordLines true to record the lines
+     */
+    void setRecordLines(boolean recordLines) {
+        this.recordLines = recordLines;
+    }
+
+    /**
+     * Gets the lines recorded by the last simulation if it laid out all text in a simple column.
+     *
+     * @return the lines or null
+     */
+    LineLayout getRecordedLines() {
+        return recordedLines;
+    }
+
+    /**
+     * Sets lines recorded by a simulation of a duplicate of this column. The next call of <CODE>go</CODE> writes them
+     * instead of laying out the text again, provided the column is as wide as the simulated one and all lines fit.
+     * Otherwise the text is laid out as usual.
+     *
+     * @param lines the lines recorded from the same text, or null
+     */
+    void setLinesToReplay(LineLayout lines) {
+        this.linesToReplay = lines;
+    }
+
+    /**
+     * Gets the lines the next call of <CODE>go</CODE> writes instead of laying out the text again.
+     *
+     * @return the lines or null
+     */
+    LineLayout getLinesToReplay() {
+        return linesToReplay;
+    }
+
+    /**
+     * Lines laid out by a simulation, together with the leading that was used for each of them.
+     */
+    static final class LineLayout {
+
+        private final float width;
+        private final boolean startsWithNewline;
+        private final PdfLine[] lines;
+        private final float[] leadings;
+
+        LineLayout(float width, boolean startsWithNewline, PdfLine[] lines, float[] leadings) {
+            this.width = width;
+            this.startsWithNewline = startsWithNewline;
+            this.lines = lines;
+            this.leadings = leadings;
+        }
+    }
+
     /**
      * Sets the extra space between paragraphs.
      *
@@ -1473,7 +1620,7 @@ public class ColumnText {
                 float tableWidth;
                 if (table.isLockedWidth()) {
                     tableWidth = table.getTotalWidth();
-                    table.calculateHeights(true);
+                    table.calculateHeightsIfChanged();
                     updateFilledWidth(tableWidth);
                 } else {
                     tableWidth = rectangularWidth * table.getWidthPercentage() / 100f;
@@ -159,9 +159,15 @@ class FontDetails {
     }
 
     void addMissingCmapEntries(String text, GlyphVector glyphVector, BaseFont baseFont) {
+        int numGlyphs = glyphVector.getNumGlyphs();
+        addMissingCmapEntries(text, glyphVector.getGlyphCodes(0, numGlyphs, null),
+                glyphVector.getGlyphCharIndices(0, numGlyphs, null), baseFont);
+    }
+
+    void addMissingCmapEntries(String text, int[] glyphCodes, int[] charIndices, BaseFont baseFont) {
 
         if (baseFont instanceof TrueTypeFontUnicode trueTypeFont && getFillerCmap() != null) {
-            int[][] localCmap = trueTypeFont.getSentenceMissingCmap(text, glyphVector);
+            int[][] localCmap = trueTypeFont.getSentenceMissingCmap(text, glyphCodes, charIndices);
 
             for (int[] ints : localCmap) {
                 putFillerCmap(ints[0], new int[]{ints[0], ints[1]});
@@ -395,13 +401,18 @@ class FontDetails {
     }
 
     byte[] convertToBytes(GlyphVector glyphVector, int beginIndex, int endIndex) {
+        return convertToBytes(glyphVector.getGlyphCodes(beginIndex, endIndex - beginIndex, null), 0,
+                endIndex - beginIndex);
+    }
+
+    byte[] convertToBytes(int[] glyphCodes, int beginIndex, int endIndex) {
         if (fontType != BaseFont.FONT_TYPE_TTUNI || symbolic) {
             throw new UnsupportedOperationException("Only supported for True Type Unicode fonts");
         }
         List<Integer> codePoints = new ArrayList<>();
 
         for (int i = beginIndex; i < endIndex; i++) {
-            int code = glyphVector.getGlyphCode(i);
+            int code = glyphCodes[i];
             if (code == 0xFFFE || code == 0xFFFF) {
                 // considered non-glyphs by AWT
                 continue;
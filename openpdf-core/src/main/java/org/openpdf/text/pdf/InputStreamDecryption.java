@@ -0,0 +1,87 @@
+package org.openpdf.text.pdf;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that decrypts the data of another stream as it is read. It is the reading counterpart of
+ * {@link OutputStreamEncryption}: only a small buffer is kept, whatever the size of the encrypted data.
+ */
+public class InputStreamDecryption extends InputStream {
+
+    protected InputStream in;
+    protected StandardDecryption decryption;
+    private final byte[] sb = new byte[1];
+    /**
+     * The encrypted bytes, reused by all reads
+     */
+    private final byte[] inBuf = new byte[4096];
+    /**
+     * The decrypted bytes not yet read
+     */
+    private byte[] buf = new byte[4096 + 16];
+    private int bufPos;
+    private int bufLen;
+    private boolean finished;
+
+    /**
+     * Creates a new instance of InputStreamDecryption
+     *
+     * @param in         the encrypted data
+     * @param decryption the decryption of the data
+     */
+    public InputStreamDecryption(InputStream in, StandardDecryption decryption) {
+        this.in = in;
+        this.decryption = decryption;
+    }
+
+    public int read() throws IOException {
+        int n = read(sb, 0, 1);
+        return n < 0 ? -1 : sb[0] & 0xff;
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (bufPos == bufLen) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, bufLen - bufPos);
+        System.arraycopy(buf, bufPos, b, off, n);
+        bufPos += n;
+        return n;
+    }
+
+    public int available() {
+        return bufLen - bufPos;
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (finished) {
+            return false;
+        }
+        bufPos = 0;
+        int n = in.read(inBuf);
+        if (n < 0) {
+            finished = true;
+            bufLen = decryption.finish(buffer(16), 0);
+            return bufLen > 0;
+        }
+        bufLen = decryption.update(inBuf, 0, n, buffer(decryption.getOutputSize(n)), 0);
+        return true;
+    }
+
+    private byte[] buffer(int size) {
+        if (buf.length < size) {
+            buf = new byte[size];
+        }
+        return buf;
+    }
+}
@@ -45,6 +45,7 @@ package org.openpdf.text.pdf;
 import org.openpdf.text.FontFactory;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphMetrics;
 import java.awt.font.GlyphVector;
 import java.awt.font.TextAttribute;
 import java.awt.geom.AffineTransform;
@@ -57,6 +58,7 @@ import java.nio.file.Files;
 import java.text.AttributedString;
 import java.text.Bidi;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -83,6 +85,15 @@ public class LayoutProcessor {
 
     private static boolean writeActualText;
 
+    private static final int DEFAULT_SHAPING_CACHE_SIZE = 2000;
+    private static int shapingCacheSize = DEFAULT_SHAPING_CACHE_SIZE;
+    private static final Map<ShapingKey, ShapedText> shapingCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ShapingKey, ShapedText> eldest) {
+            return size() > shapingCacheSize;
+        }
+    };
+
     private LayoutProcessor() {
         throw new UnsupportedOperationException("static class");
     }
@@ -247,6 +258,33 @@ public class LayoutProcessor {
         writeActualText = true;
     }
 
+    /**
+     * Sets the number of shaped texts that are kept for reuse. Repeated texts such as labels, table headers and
+     * running headers are then laid out by AWT only once per font and size. The default is 2000, 0 switches the cache
+     * off.
+     *
+     * @param size the maximum number of cached texts
+     */
+    public static void setShapingCacheSize(int size) {
+        synchronized (shapingCache) {
+            shapingCacheSize = Math.max(0, size);
+            if (shapingCache.size() > shapingCacheSize) {
+                shapingCache.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of shaped texts that are kept for reuse
+     *
+     * @return the maximum number of cached texts
+     */
+    public static int getShapingCacheSize() {
+        synchronized (shapingCache) {
+            return shapingCacheSize;
+        }
+    }
+
     public static int getFlags() {
         return flags;
     }
@@ -339,18 +377,21 @@ public class LayoutProcessor {
      * @return glyph vector containing reordered text, width and positioning info
      */
     public static GlyphVector computeGlyphVector(BaseFont baseFont, float fontSize, String text) {
+        return computeGlyphVector(LayoutProcessor.awtFontMap.get(baseFont), fontSize, text, LayoutProcessor.flags);
+    }
+
+    private static GlyphVector computeGlyphVector(java.awt.Font font, float fontSize, String text, int localFlags) {
         char[] chars = text.toCharArray();
 
         FontRenderContext fontRenderContext = new FontRenderContext(new AffineTransform(), false, true);
         // specify fractional metrics to compute accurate positions
 
-        int localFlags = LayoutProcessor.flags;
         if (localFlags == DEFAULT_FLAGS) {
             AttributedString as = new AttributedString(text);
             Bidi bidi = new Bidi(as.getIterator());
             localFlags = bidi.isLeftToRight() ? java.awt.Font.LAYOUT_LEFT_TO_RIGHT : java.awt.Font.LAYOUT_RIGHT_TO_LEFT;
         }
-        java.awt.Font awtFont = LayoutProcessor.awtFontMap.get(baseFont).deriveFont(fontSize);
+        java.awt.Font awtFont = font.deriveFont(fontSize);
         Map<TextAttribute, ?> textAttributes = awtFont.getAttributes();
         if (textAttributes != null) {
             Object runDirection = textAttributes.get(TextAttribute.RUN_DIRECTION);
@@ -363,32 +404,31 @@ public class LayoutProcessor {
     }
 
     /**
-     * Checks if the glyphVector contains adjustments that make advanced layout necessary
+     * Computes glyph positioning, or returns the positions computed before for the same font, size, text and flags
      *
-     * @param glyphVector glyph vector containing the positions
-     * @return true, if the glyphVector contains adjustments
+     * @param baseFont OpenPdf base font
+     * @param fontSize font size to apply
+     * @param text     input text
+     * @return the glyphs with their positions and advances
      */
-    private static boolean noAdjustments(GlyphVector glyphVector) {
-        boolean retVal = false;
-        float lastX = 0f;
-        float lastY = 0f;
-
-        for (int i = 0; i < glyphVector.getNumGlyphs(); i++) {
-            Point2D p = glyphVector.getGlyphPosition(i);
-            float dx = (float) p.getX() - lastX;
-            float dy = (float) p.getY() - lastY;
-
-            float ax = (i == 0) ? 0.0f : glyphVector.getGlyphMetrics(i - 1).getAdvanceX();
-            float ay = (i == 0) ? 0.0f : glyphVector.getGlyphMetrics(i - 1).getAdvanceY();
-
-            if (dx != ax || dy != ay) {
-                retVal = true;
-                break;
+    static ShapedText shapeText(BaseFont baseFont, float fontSize, String text) {
+        java.awt.Font awtFont = LayoutProcessor.awtFontMap.get(baseFont);
+        int localFlags = LayoutProcessor.flags;
+        ShapingKey key = new ShapingKey(awtFont, fontSize, text, localFlags);
+        ShapedText shaped;
+        synchronized (shapingCache) {
+            shaped = shapingCache.get(key);
+        }
+        if (shaped == null) {
+            // lay out outside the lock, a concurrent layout of the same text only wastes some work
+            shaped = new ShapedText(computeGlyphVector(awtFont, fontSize, text, localFlags));
+            synchronized (shapingCache) {
+                if (shapingCacheSize > 0) {
+                    shapingCache.put(key, shaped);
+                }
             }
-            lastX = (float) p.getX();
-            lastY = (float) p.getY();
         }
-        return !retVal;
+        return shaped;
     }
 
     /**
@@ -410,62 +450,59 @@ public class LayoutProcessor {
     }
 
 
-    private static void completeCmap(PdfContentByte cb, BaseFont baseFont, String text, GlyphVector glyphVector) {
-        cb.state.fontDetails.addMissingCmapEntries(text, glyphVector, baseFont);
+    private static void completeCmap(PdfContentByte cb, BaseFont baseFont, String text, ShapedText shaped) {
+        cb.state.fontDetails.addMissingCmapEntries(text, shaped.glyphCodes, shaped.charIndices, baseFont);
     }
 
 
     @Deprecated
     private static Point2D showText1(PdfContentByte cb, BaseFont baseFont, float fontSize, String text) {
-        GlyphVector glyphVector = computeGlyphVector(baseFont, fontSize, text);
-        completeCmap(cb, baseFont, text, glyphVector);
-
-        if (noAdjustments(glyphVector)) {
-            cb.showText(glyphVector);
-            Point2D p = glyphVector.getGlyphPosition(glyphVector.getNumGlyphs());
-            float dx = (float) p.getX();
-            float dy = (float) p.getY();
+        ShapedText shaped = shapeText(baseFont, fontSize, text);
+        completeCmap(cb, baseFont, text, shaped);
+
+        int numGlyphs = shaped.getNumGlyphs();
+        if (!shaped.adjusted) {
+            cb.showGlyphs(shaped.glyphCodes, 0, numGlyphs);
+            float dx = shaped.getX(numGlyphs);
+            float dy = shaped.getY(numGlyphs);
             cb.moveTextBasic(dx, -dy);
             return new Point2D.Double(-dx, dy);
         }
         float lastX = 0f;
         float lastY = 0f;
 
-        for (int i = 0; i < glyphVector.getNumGlyphs(); i++) {
-            Point2D p = glyphVector.getGlyphPosition(i);
-
-            float dx = (float) p.getX() - lastX;
-            float dy = (float) p.getY() - lastY;
+        for (int i = 0; i < numGlyphs; i++) {
+            float dx = shaped.getX(i) - lastX;
+            float dy = shaped.getY(i) - lastY;
 
             cb.moveTextBasic(dx, -dy);
 
-            cb.showText(glyphVector, i, i + 1);
+            cb.showGlyphs(shaped.glyphCodes, i, i + 1);
 
-            lastX = (float) p.getX();
-            lastY = (float) p.getY();
+            lastX = shaped.getX(i);
+            lastY = shaped.getY(i);
         }
-        Point2D p = glyphVector.getGlyphPosition(glyphVector.getNumGlyphs());
-        float dx = (float) p.getX() - lastX;
-        float dy = (float) p.getY() - lastY;
+        float dx = shaped.getX(numGlyphs) - lastX;
+        float dy = shaped.getY(numGlyphs) - lastY;
         cb.moveTextBasic(dx, -dy);
 
-        return new Point2D.Double(-p.getX(), p.getY());
+        return new Point2D.Double(-shaped.getX(numGlyphs), shaped.getY(numGlyphs));
     }
 
 
     private static Point2D showText2(PdfContentByte cb, BaseFont baseFont, float fontSize, String text) {
-        GlyphVector glyphVector = computeGlyphVector(baseFont, fontSize, text);
-        completeCmap(cb, baseFont, text, glyphVector);
+        ShapedText shaped = shapeText(baseFont, fontSize, text);
+        completeCmap(cb, baseFont, text, shaped);
 
         if (writeActualText) {
             PdfDictionary d = new PdfDictionary();
             d.put(PdfName.ACTUALTEXT, new PdfString(text, PdfObject.TEXT_UNICODE));
             cb.beginMarkedContentSequence(PdfName.SPAN, d, true);
         }
-        if (noAdjustments(glyphVector)) {
-            cb.showText(glyphVector);
+        if (!shaped.adjusted) {
+            cb.showGlyphs(shaped.glyphCodes, 0, shaped.getNumGlyphs());
         } else {
-            adjustAndShowText(cb, fontSize, glyphVector);
+            adjustAndShowText(cb, fontSize, shaped);
         }
         if (writeActualText) {
             cb.endMarkedContentSequence();
@@ -474,7 +511,7 @@ public class LayoutProcessor {
     }
 
 
-    private static void adjustAndShowText(PdfContentByte cb, final float fontSize, final GlyphVector glyphVector) {
+    private static void adjustAndShowText(PdfContentByte cb, final float fontSize, final ShapedText shaped) {
 
         final float deltaY = 1e-5f;
         final float deltaX = deltaY;
@@ -484,11 +521,11 @@ public class LayoutProcessor {
 
         PdfGlyphArray ga = new PdfGlyphArray();
 
-        for (int i = 0; i < glyphVector.getNumGlyphs(); i++) {
-            Point2D p = glyphVector.getGlyphPosition(i);
-            float ax = (i == 0) ? 0.0f : glyphVector.getGlyphMetrics(i - 1).getAdvanceX();
-            float dx = (float) p.getX() - lastX - ax;
-            float py = (float) p.getY();
+        int numGlyphs = shaped.getNumGlyphs();
+        for (int i = 0; i < numGlyphs; i++) {
+            float ax = (i == 0) ? 0.0f : shaped.getAdvanceX(i - 1);
+            float dx = shaped.getX(i) - lastX - ax;
+            float py = shaped.getY(i);
 
             if (Math.abs(py) >= deltaY) {
                 if (!ga.isEmpty()) {
@@ -500,17 +537,16 @@ public class LayoutProcessor {
             if (Math.abs(dx) >= deltaX) {
                 ga.add(-dx * factorX);
             }
-            ga.add(glyphVector.getGlyphCode(i));
+            ga.add(shaped.glyphCodes[i]);
             if (Math.abs(py) >= deltaY) {
                 cb.showText(ga);
                 ga.clear();
                 cb.setTextRise(0.0f);
             }
-            lastX = (float) p.getX();
+            lastX = shaped.getX(i);
         }
-        Point2D p = glyphVector.getGlyphPosition(glyphVector.getNumGlyphs());
-        float ax = (glyphVector.getNumGlyphs() == 0) ? 0.0f : glyphVector.getGlyphMetrics(glyphVector.getNumGlyphs() - 1).getAdvanceX();
-        float dx = (float) p.getX() - lastX - ax;
+        float ax = (numGlyphs == 0) ? 0.0f : shaped.getAdvanceX(numGlyphs - 1);
+        float dx = shaped.getX(numGlyphs) - lastX - ax;
         if (Math.abs(dx) >= deltaX) {
             ga.add(-dx * factorX);
         }
@@ -525,5 +561,99 @@ public class LayoutProcessor {
         globalTextAttributes.clear();
         writeActualText = false;
         setVersion(Version.TWO);
+        synchronized (shapingCache) {
+            shapingCache.clear();
+        }
+    }
+
+    /**
+     * The inputs of a glyph layout. The AWT font carries the text attributes set for the base font. It is compared by
+     * identity: {@link java.awt.Font#equals(Object)} does not tell apart fonts with the same name loaded from
+     * different files, and their glyph codes differ.
+     */
+    private record ShapingKey(java.awt.Font font, float fontSize, String text, int flags) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ShapingKey other && font == other.font && fontSize == other.fontSize
+                    && flags == other.flags && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * System.identityHashCode(font) + Float.hashCode(fontSize)) + text.hashCode())
+                    + flags;
+        }
+    }
+
+    /**
+     * The result of a glyph layout: the glyph codes in visual order, the characters they were made from, their
+     * positions and advances. Unlike a {@link GlyphVector} it is immutable and can be shared between threads.
+     */
+    static final class ShapedText {
+
+        final int[] glyphCodes;
+        final int[] charIndices;
+        /** x and y of every glyph and of the end of the text */
+        private final float[] positions;
+        /** x and y advance of every glyph */
+        private final float[] advances;
+        /** true if the glyphs are not simply placed one after the other */
+        final boolean adjusted;
+
+        ShapedText(GlyphVector glyphVector) {
+            int numGlyphs = glyphVector.getNumGlyphs();
+            glyphCodes = glyphVector.getGlyphCodes(0, numGlyphs, null);
+            charIndices = glyphVector.getGlyphCharIndices(0, numGlyphs, null);
+            positions = glyphVector.getGlyphPositions(0, numGlyphs + 1, null);
+            advances = new float[2 * numGlyphs];
+            for (int i = 0; i < numGlyphs; i++) {
+                GlyphMetrics metrics = glyphVector.getGlyphMetrics(i);
+                advances[2 * i] = metrics.getAdvanceX();
+                advances[2 * i + 1] = metrics.getAdvanceY();
+            }
+            adjusted = hasAdjustments();
+        }
+
+        int getNumGlyphs() {
+            return glyphCodes.length;
+        }
+
+        float getX(int glyph) {
+            return positions[2 * glyph];
+        }
+
+        float getY(int glyph) {
+            return positions[2 * glyph + 1];
+        }
+
+        float getAdvanceX(int glyph) {
+            return advances[2 * glyph];
+        }
+
+        /**
+         * Checks if the positions contain adjustments that make advanced layout necessary
+         *
+         * @return true, if a glyph is not placed at the advance of the previous glyph
+         */
+        private boolean hasAdjustments() {
+            float lastX = 0f;
+            float lastY = 0f;
+
+            for (int i = 0; i < getNumGlyphs(); i++) {
+                float dx = getX(i) - lastX;
+                float dy = getY(i) - lastY;
+
+                float ax = (i == 0) ? 0.0f : advances[2 * (i - 1)];
+                float ay = (i == 0) ? 0.0f : advances[2 * (i - 1) + 1];
+
+                if (dx != ax || dy != ay) {
+                    return true;
+                }
+                lastX = getX(i);
+                lastY = getY(i);
+            }
+            return false;
+        }
     }
 }
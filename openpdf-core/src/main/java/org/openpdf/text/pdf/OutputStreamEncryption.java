@@ -63,6 +63,10 @@ public class OutputStreamEncryption extends OutputStream {
     protected ARCFOUREncryption arcfour;
     protected AESCipher cipher;
     private byte[] sb = new byte[1];
+    /**
+     * The encrypted bytes, reused by all writes
+     */
+    private byte[] buf;
     private boolean aes;
     private boolean finished;
 
@@ -180,13 +184,12 @@ public class OutputStreamEncryption extends OutputStream {
      */
     public void write(byte[] b, int off, int len) throws IOException {
         if (aes) {
-            byte[] b2 = cipher.update(b, off, len);
-            if (b2 == null || b2.length == 0) {
-                return;
+            int n = cipher.update(b, off, len, buffer(cipher.getUpdateOutputSize(len)), 0);
+            if (n > 0) {
+                out.write(buf, 0, n);
             }
-            out.write(b2, 0, b2.length);
         } else {
-            byte[] b2 = new byte[Math.min(len, 4192)];
+            byte[] b2 = buffer(Math.min(len, 4192));
             while (len > 0) {
                 int sz = Math.min(len, b2.length);
                 arcfour.encryptARCFOUR(b, off, sz, b2, 0);
@@ -201,14 +204,21 @@ public class OutputStreamEncryption extends OutputStream {
         if (!finished) {
             finished = true;
             if (aes) {
-                byte[] b;
+                int n;
                 try {
-                    b = cipher.doFinal();
+                    n = cipher.doFinal(buffer(cipher.getFinalOutputSize()), 0);
                 } catch (Exception ex) {
                     throw new ExceptionConverter(ex);
                 }
-                out.write(b, 0, b.length);
+                out.write(buf, 0, n);
             }
         }
     }
+
+    private byte[] buffer(int size) {
+        if (buf == null || buf.length < size) {
+            buf = new byte[Math.max(size, 4096)];
+        }
+        return buf;
+    }
 }
\ No newline at end of file
@@ -53,6 +53,7 @@ import org.openpdf.text.Document;
 import org.openpdf.text.ExceptionConverter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
@@ -217,20 +218,44 @@ public class PRStream extends PdfStream {
     }
 
     public void toPdf(PdfWriter writer, OutputStream os) throws IOException {
-        byte[] b = PdfReader.getStreamBytesRaw(this);
         PdfEncryption crypto = null;
         if (writer != null) {
             crypto = writer.getEncryption();
         }
-        PdfObject objLen = get(PdfName.LENGTH);
-        int nn = b.length;
-        if (crypto != null) {
-            nn = crypto.calculateStreamSize(nn);
+        if (offset >= 0 && length > 0) {
+            // the content goes from the file to the output, decrypted and encrypted again on the way
+            RandomAccessFileOrArray rf = reader.getSafeFile();
+            try {
+                rf.reOpen();
+                int rawLength = PdfReader.getStreamRawLength(this, rf);
+                if (rawLength >= 0) {
+                    writeDictionary(writer, os, crypto, rawLength);
+                    OutputStreamEncryption ose = null;
+                    OutputStream out = os;
+                    if (crypto != null && !crypto.isEmbeddedFilesOnly()) {
+                        out = ose = crypto.getEncryptionStream(os);
+                    }
+                    InputStream in = PdfReader.getStreamRawInputStream(this, rf);
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) >= 0) {
+                        out.write(buf, 0, n);
+                    }
+                    if (ose != null) {
+                        ose.finish();
+                    }
+                    os.write(ENDSTREAM);
+                    return;
+                }
+            } finally {
+                try {
+                    rf.close();
+                } catch (Exception ignored) {
+                }
+            }
         }
-        put(PdfName.LENGTH, new PdfNumber(nn));
-        superToPdf(writer, os);
-        put(PdfName.LENGTH, objLen);
-        os.write(STARTSTREAM);
+        byte[] b = PdfReader.getStreamBytesRaw(this);
+        writeDictionary(writer, os, crypto, b.length);
         if (length > 0) {
             if (crypto != null && !crypto.isEmbeddedFilesOnly()) {
                 b = crypto.encryptByteArray(b);
@@ -239,4 +264,17 @@ public class PRStream extends PdfStream {
         }
         os.write(ENDSTREAM);
     }
+
+    private void writeDictionary(PdfWriter writer, OutputStream os, PdfEncryption crypto, int rawLength)
+            throws IOException {
+        PdfObject objLen = get(PdfName.LENGTH);
+        int nn = rawLength;
+        if (crypto != null) {
+            nn = crypto.calculateStreamSize(nn);
+        }
+        put(PdfName.LENGTH, new PdfNumber(nn));
+        superToPdf(writer, os);
+        put(PdfName.LENGTH, objLen);
+        os.write(STARTSTREAM);
+    }
 }
\ No newline at end of file
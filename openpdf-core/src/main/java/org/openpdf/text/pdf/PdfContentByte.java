@@ -1750,6 +1750,23 @@ public class PdfContentByte {
         content.append("Tj").append_i(separator);
     }
 
+    /**
+     * Shows glyphs given by their codes in the current font.
+     *
+     * @param glyphCodes the glyph codes
+     * @param beginIndex index of first glyph
+     * @param endIndex   index of last glyph+1
+     */
+    void showGlyphs(int[] glyphCodes, int beginIndex, int endIndex) {
+        if (state.fontDetails == null) {
+            throw new NullPointerException(
+                    MessageLocalization.getComposedMessage("font.and.size.must.be.set.before.writing.any.text"));
+        }
+        byte[] b = state.fontDetails.convertToBytes(glyphCodes, beginIndex, endIndex);
+        escapeAndAppendString(b, content);
+        content.append("Tj").append_i(separator);
+    }
+
     /**
      * Shows the <CODE>text</CODE> kerned.
      *
@@ -51,10 +51,11 @@ package org.openpdf.text.pdf;
 
 import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
+import org.openpdf.text.pdf.crypto.AESCipher;
 import org.openpdf.text.pdf.crypto.ARCFOUREncryption;
 import org.openpdf.text.pdf.crypto.IVGenerator;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.security.GeneralSecurityException;
@@ -729,38 +730,65 @@ public class PdfEncryption {
         }
     }
 
-    public byte[] encryptByteArray(byte[] b) {
-        try {
-            ByteArrayOutputStream ba = new ByteArrayOutputStream();
-            OutputStreamEncryption os2 = getEncryptionStream(ba);
-            os2.write(b);
-            os2.finish();
-            return ba.toByteArray();
-        } catch (IOException ex) {
-            throw new ExceptionConverter(ex);
+    /**
+     * Gets the size of encrypted data once decrypted, the reverse of {@link #calculateStreamSize(int)}. AES strips a
+     * padding from the last block, so the last two blocks are decrypted to find it.
+     *
+     * @param n    the size of the encrypted data
+     * @param tail the last 32 bytes of the encrypted data
+     * @return the size of the decrypted data, or -1 if it is only known by decrypting all the data
+     */
+    int calculateDecryptedSize(int n, byte[] tail) {
+        if (revision != AES_128 && revision != AES_256_V3) {
+            return n;
+        }
+        if (n < 32 || n % 16 != 0) {
+            return -1;
         }
+        // the block before the last one is the iv of the last one
+        StandardDecryption dec = getDecryptor();
+        byte[] out = new byte[32];
+        int last = dec.update(tail, 0, 32, out, 0);
+        last += dec.finish(out, last);
+        return n - 32 + last;
+    }
+
+    public byte[] encryptByteArray(byte[] b) {
+        if (revision == AES_128 || revision == AES_256_V3) {
+            // the size is known, so the bytes are encrypted into one array. Like OutputStreamEncryption, the iv is
+            // encrypted as the first block
+            byte[] iv = IVGenerator.getIV();
+            AESCipher cipher = new AESCipher(true, keySize == key.length ? key : Arrays.copyOf(key, keySize), iv);
+            byte[] out = new byte[calculateStreamSize(b.length)];
+            int n = cipher.update(iv, 0, iv.length, out, 0);
+            n += cipher.update(b, 0, b.length, out, n);
+            n += cipher.doFinal(out, n);
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+        // RC4 keeps the size, so the bytes are encrypted straight into the result
+        ARCFOUREncryption rc4 = new ARCFOUREncryption();
+        rc4.prepareARCFOURKey(key, 0, keySize);
+        byte[] out = new byte[b.length];
+        rc4.encryptARCFOUR(b, 0, b.length, out, 0);
+        return out;
     }
 
     public StandardDecryption getDecryptor() {
         return new StandardDecryption(key, 0, keySize, revision);
     }
 
+    public InputStreamDecryption getDecryptionStream(InputStream is) {
+        return new InputStreamDecryption(is, getDecryptor());
+    }
+
     public byte[] decryptByteArray(byte[] b) {
-        try {
-            ByteArrayOutputStream ba = new ByteArrayOutputStream();
-            StandardDecryption dec = getDecryptor();
-            byte[] b2 = dec.update(b, 0, b.length);
-            if (b2 != null) {
-                ba.write(b2);
-            }
-            b2 = dec.finish();
-            if (b2 != null) {
-                ba.write(b2);
-            }
-            return ba.toByteArray();
-        } catch (IOException ex) {
-            throw new ExceptionConverter(ex);
-        }
+        StandardDecryption dec = getDecryptor();
+        // only AES holds back a block until the end
+        int extra = revision == AES_128 || revision == AES_256_V3 ? 16 : 0;
+        byte[] out = new byte[dec.getOutputSize(b.length) + extra];
+        int n = dec.update(b, 0, b.length, out, 0);
+        n += dec.finish(out, n);
+        return n == out.length ? out : Arrays.copyOf(out, n);
     }
 
     public void addRecipient(Certificate cert, int permission) {
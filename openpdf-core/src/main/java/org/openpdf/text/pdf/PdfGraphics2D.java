@@ -103,6 +103,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -124,6 +125,11 @@ public class PdfGraphics2D extends Graphics2D {
     private static final int CLIP = 3;
     private static final AffineTransform IDENTITY = new AffineTransform();
 
+    /**
+     * The number of distinct shapes remembered for reuse
+     */
+    private static final int REUSED_SHAPES = 256;
+
     private static final Set<String> LOGICAL_FONT_NAMES = Collections.unmodifiableSet(
             new HashSet<>(Arrays.asList("Dialog", "DialogInput", "Monospaced", "Serif", "SansSerif")));
     private static final String BOLD_FONT_FACE_NAME_SUFFIX = ".bold";
@@ -174,6 +180,11 @@ public class PdfGraphics2D extends Graphics2D {
     // make use of compositeFontDrawer configurable ... may be set via property or directly via setter
     private boolean isCompositeFontDrawerEnabled = SystemPropertyUtil.getBoolean(
             "com.github.librepdf.openpdf.compositeFontDrawerEnabled", true);
+    /**
+     * The shapes already drawn, with their template once drawn twice. Shared with the children.
+     */
+    private Map<ShapeKey, PdfTemplate> reusedShapes;
+    private double[] points = new double[8];
 
     private PdfGraphics2D() {
         dg2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
@@ -203,6 +214,7 @@ public class PdfGraphics2D extends Graphics2D {
         mediaTracker = parent.mediaTracker;
         convertImagesToJPEG = parent.convertImagesToJPEG;
         jpegQuality = parent.jpegQuality;
+        reusedShapes = parent.reusedShapes;
         setFont(parent.font);
         cb = parent.cb.getDuplicate();
         cb.saveState();
@@ -216,8 +228,14 @@ public class PdfGraphics2D extends Graphics2D {
         stroke = parent.stroke;
         originalStroke = parent.originalStroke;
         strokeOne = (BasicStroke) transformStroke(strokeOne);
-        oldStroke = parent.strokeOne;
-        setStrokeDiff(oldStroke, null);
+        // the content of the child goes where the parent is now, so it starts with the state of the parent
+        oldStroke = parent.oldStroke;
+        if (parent.paintFill instanceof Color) {
+            paintFill = parent.paintFill;
+        }
+        if (parent.paintStroke instanceof Color) {
+            paintStroke = parent.paintStroke;
+        }
         cb.saveState();
         if (clip != null) {
             followPath(clip, CLIP);
@@ -1247,6 +1265,10 @@ public class PdfGraphics2D extends Graphics2D {
      * @see Graphics#drawPolyline(int[], int[], int)
      */
     public void drawPolyline(int[] x, int[] y, int nPoints) {
+        if (nPoints > 1 && stroke instanceof BasicStroke) {
+            followPolyline(x, y, nPoints, false, STROKE);
+            return;
+        }
         PolylineShape polyline = new PolylineShape(x, y, nPoints);
         draw(polyline);
     }
@@ -1255,6 +1277,10 @@ public class PdfGraphics2D extends Graphics2D {
      * @see Graphics#drawPolygon(int[], int[], int)
      */
     public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints > 1 && stroke instanceof BasicStroke) {
+            followPolyline(xPoints, yPoints, nPoints, true, STROKE);
+            return;
+        }
         Polygon poly = new Polygon(xPoints, yPoints, nPoints);
         draw(poly);
     }
@@ -1263,6 +1289,10 @@ public class PdfGraphics2D extends Graphics2D {
      * @see Graphics#fillPolygon(int[], int[], int)
      */
     public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints > 1) {
+            followPolyline(xPoints, yPoints, nPoints, true, FILL);
+            return;
+        }
         Polygon poly = new Polygon();
         for (int i = 0; i < nPoints; i++) {
             poly.addPoint(xPoints[i], yPoints[i]);
@@ -1395,6 +1425,36 @@ public class PdfGraphics2D extends Graphics2D {
     //
     //
 
+    /**
+     * Enables or disables the reuse of repeated shapes, like the markers of a chart. A shape with curves or many
+     * segments that is drawn again with the same size and a solid color is written once as a template, and every
+     * further drawing only places the template. Children created afterwards share the shapes.
+     *
+     * @param shapeReuseEnabled true to write repeated shapes once
+     */
+    public void setShapeReuseEnabled(boolean shapeReuseEnabled) {
+        if (!shapeReuseEnabled) {
+            reusedShapes = null;
+        } else if (reusedShapes == null) {
+            reusedShapes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ShapeKey, PdfTemplate> eldest) {
+                    return size() > REUSED_SHAPES;
+                }
+            };
+        }
+    }
+
+    /**
+     * Checks if repeated shapes are written once.
+     *
+     * @return true if repeated shapes are written once
+     * @see #setShapeReuseEnabled(boolean)
+     */
+    public boolean isShapeReuseEnabled() {
+        return reusedShapes != null;
+    }
+
     /**
      * Enables/Disables the composite font drawer due to issues with custom font mappers that do not always default to
      * one specific font but allow custom fonts.
@@ -1416,12 +1476,18 @@ public class PdfGraphics2D extends Graphics2D {
                 return;
             }
         }
-        if (drawType == STROKE) {
-            setStrokeDiff(stroke, oldStroke);
-            oldStroke = stroke;
-            setStrokePaint();
-        } else if (drawType == FILL) {
-            setFillPaint();
+        setDrawingState(drawType);
+        if (drawType != CLIP) {
+            if (s instanceof Rectangle2D rect && followRectangle(rect, drawType)) {
+                return;
+            }
+            if (drawType == STROKE && s instanceof Line2D line) {
+                followLine(line);
+                return;
+            }
+            if (reusedShapes != null && followReusedShape(s, drawType)) {
+                return;
+            }
         }
         PathIterator points;
         int traces = 0;
@@ -1460,17 +1526,9 @@ public class PdfGraphics2D extends Graphics2D {
         }
         switch (drawType) {
             case FILL:
-                if (traces > 0) {
-                    if (points.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
-                        cb.eoFill();
-                    } else {
-                        cb.fill();
-                    }
-                }
-                break;
             case STROKE:
                 if (traces > 0) {
-                    cb.stroke();
+                    endPath(cb, drawType, points.getWindingRule());
                 }
                 break;
             default: //drawType==CLIP
@@ -1486,6 +1544,196 @@ public class PdfGraphics2D extends Graphics2D {
         }
     }
 
+    private void setDrawingState(int drawType) {
+        if (drawType == STROKE) {
+            setStrokeDiff(stroke, oldStroke);
+            oldStroke = stroke;
+            setStrokePaint();
+        } else if (drawType == FILL) {
+            setFillPaint();
+        }
+    }
+
+    private static void endPath(PdfContentByte content, int drawType, int windingRule) {
+        if (drawType == STROKE) {
+            content.stroke();
+        } else if (windingRule == PathIterator.WIND_EVEN_ODD) {
+            content.eoFill();
+        } else {
+            content.fill();
+        }
+    }
+
+    /**
+     * Writes a rectangle with a single operator, unless the transform rotates or shears it.
+     */
+    private boolean followRectangle(Rectangle2D rect, int drawType) {
+        if (transform.getShearX() != 0 || transform.getShearY() != 0) {
+            return false;
+        }
+        // like its path, a rectangle of negative size draws nothing
+        if (rect.getWidth() >= 0 && rect.getHeight() >= 0) {
+            float x = (float) (transform.getScaleX() * rect.getX() + transform.getTranslateX());
+            float y = normalizeY((float) (transform.getScaleY() * rect.getY() + transform.getTranslateY()));
+            cb.rectangle(x, y, (float) (transform.getScaleX() * rect.getWidth()),
+                    (float) (-transform.getScaleY() * rect.getHeight()));
+            endPath(cb, drawType, PathIterator.WIND_NON_ZERO);
+        }
+        return true;
+    }
+
+    private void followLine(Line2D line) {
+        points[0] = line.getX1();
+        points[1] = line.getY1();
+        points[2] = line.getX2();
+        points[3] = line.getY2();
+        transform.transform(points, 0, points, 0, 2);
+        cb.moveTo((float) points[0], normalizeY((float) points[1]));
+        cb.lineTo((float) points[2], normalizeY((float) points[3]));
+        cb.stroke();
+    }
+
+    private void followPolyline(int[] x, int[] y, int nPoints, boolean close, int drawType) {
+        setDrawingState(drawType);
+        if (points.length < 2 * nPoints) {
+            points = new double[2 * nPoints];
+        }
+        for (int k = 0; k < nPoints; ++k) {
+            points[2 * k] = x[k];
+            points[2 * k + 1] = y[k];
+        }
+        transform.transform(points, 0, points, 0, nPoints);
+        cb.moveTo((float) points[0], normalizeY((float) points[1]));
+        for (int k = 1; k < nPoints; ++k) {
+            cb.lineTo((float) points[2 * k], normalizeY((float) points[2 * k + 1]));
+        }
+        if (close) {
+            cb.closePath();
+        }
+        // a polygon is filled with the even-odd rule
+        endPath(cb, drawType, PathIterator.WIND_EVEN_ODD);
+    }
+
+    /**
+     * Writes a shape drawn before with the same size as a template.
+     *
+     * @return false if the shape can not be reused and is not written
+     */
+    private boolean followReusedShape(Shape s, int drawType) {
+        if (!(paint instanceof Color) || cb.getPdfWriter() == null) {
+            return false;
+        }
+        PathIterator iterator = s.getPathIterator(transform);
+        int windingRule = iterator.getWindingRule();
+        byte[] types = new byte[16];
+        float[] coords = new float[32];
+        float[] segment = new float[6];
+        int ntypes = 0;
+        int ncoords = 0;
+        for (; !iterator.isDone(); iterator.next()) {
+            int type = iterator.currentSegment(segment);
+            normalizeY(segment);
+            int n = switch (type) {
+                case PathIterator.SEG_MOVETO, PathIterator.SEG_LINETO -> 2;
+                case PathIterator.SEG_QUADTO -> 4;
+                case PathIterator.SEG_CUBICTO -> 6;
+                default -> 0;
+            };
+            if (ntypes == types.length) {
+                types = Arrays.copyOf(types, 2 * ntypes);
+            }
+            if (ncoords + n > coords.length) {
+                coords = Arrays.copyOf(coords, 2 * coords.length);
+            }
+            types[ntypes++] = (byte) type;
+            System.arraycopy(segment, 0, coords, ncoords, n);
+            ncoords += n;
+        }
+        if (ntypes == 0) {
+            return true;
+        }
+        // a short path is smaller than placing a template
+        if (ncoords < 12 || types[0] != PathIterator.SEG_MOVETO) {
+            appendPath(cb, types, ntypes, coords, 0, 0);
+            endPath(cb, drawType, windingRule);
+            return true;
+        }
+        float x0 = coords[0];
+        float y0 = coords[1];
+        float[] relative = new float[ncoords];
+        for (int k = 0; k < ncoords; k += 2) {
+            relative[k] = Math.round((coords[k] - x0) * 1000) / 1000f;
+            relative[k + 1] = Math.round((coords[k + 1] - y0) * 1000) / 1000f;
+        }
+        float lineWidth = drawType == STROKE ? ((BasicStroke) stroke).getLineWidth() : 0;
+        ShapeKey key = new ShapeKey(Arrays.copyOf(types, ntypes), relative, drawType, windingRule, lineWidth);
+        PdfTemplate template = reusedShapes.get(key);
+        if (template == null) {
+            if (!reusedShapes.containsKey(key)) {
+                reusedShapes.put(key, null);
+                appendPath(cb, types, ntypes, coords, 0, 0);
+                endPath(cb, drawType, windingRule);
+                return true;
+            }
+            template = createShapeTemplate(key);
+            reusedShapes.put(key, template);
+        }
+        cb.addTemplate(template, x0, y0);
+        return true;
+    }
+
+    private PdfTemplate createShapeTemplate(ShapeKey key) {
+        float minX = 0;
+        float minY = 0;
+        float maxX = 0;
+        float maxY = 0;
+        for (int k = 0; k < key.coords.length; k += 2) {
+            minX = Math.min(minX, key.coords[k]);
+            maxX = Math.max(maxX, key.coords[k]);
+            minY = Math.min(minY, key.coords[k + 1]);
+            maxY = Math.max(maxY, key.coords[k + 1]);
+        }
+        // room for the joins and caps of the stroke
+        float margin = 1;
+        if (key.drawType == STROKE) {
+            margin += key.lineWidth * Math.max(((BasicStroke) stroke).getMiterLimit(), 1.5f);
+        }
+        PdfTemplate template = cb.createTemplate(0, 0);
+        template.setBoundingBox(new org.openpdf.text.Rectangle(minX - margin, minY - margin, maxX + margin,
+                maxY + margin));
+        appendPath(template, key.types, key.types.length, key.coords, 0, 0);
+        endPath(template, key.drawType, key.windingRule);
+        return template;
+    }
+
+    private static void appendPath(PdfContentByte content, byte[] types, int ntypes, float[] coords, float dx,
+            float dy) {
+        int c = 0;
+        for (int k = 0; k < ntypes; ++k) {
+            switch (types[k]) {
+                case PathIterator.SEG_MOVETO:
+                    content.moveTo(coords[c] + dx, coords[c + 1] + dy);
+                    c += 2;
+                    break;
+                case PathIterator.SEG_LINETO:
+                    content.lineTo(coords[c] + dx, coords[c + 1] + dy);
+                    c += 2;
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    content.curveTo(coords[c] + dx, coords[c + 1] + dy, coords[c + 2] + dx, coords[c + 3] + dy);
+                    c += 4;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    content.curveTo(coords[c] + dx, coords[c + 1] + dy, coords[c + 2] + dx, coords[c + 3] + dy,
+                            coords[c + 4] + dx, coords[c + 5] + dy);
+                    c += 6;
+                    break;
+                default:
+                    content.closePath();
+            }
+        }
+    }
+
     private float normalizeY(float y) {
         return this.height - y;
     }
@@ -2095,4 +2343,39 @@ public class PdfGraphics2D extends Graphics2D {
             double drawString(String s, BaseFont basicFont, double x, double y);
         }
     }
+
+    /**
+     * A path relative to its first point, with the way it is painted.
+     */
+    private static final class ShapeKey {
+
+        private final byte[] types;
+        private final float[] coords;
+        private final int drawType;
+        private final int windingRule;
+        private final float lineWidth;
+        private final int hash;
+
+        ShapeKey(byte[] types, float[] coords, int drawType, int windingRule, float lineWidth) {
+            this.types = types;
+            this.coords = coords;
+            this.drawType = drawType;
+            this.windingRule = windingRule;
+            this.lineWidth = lineWidth;
+            this.hash = Objects.hash(Arrays.hashCode(types), Arrays.hashCode(coords), drawType, windingRule,
+                    lineWidth);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ShapeKey other && hash == other.hash && drawType == other.drawType
+                    && windingRule == other.windingRule && lineWidth == other.lineWidth
+                    && Arrays.equals(types, other.types) && Arrays.equals(coords, other.coords);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -55,6 +55,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * <CODE>PdfImage</CODE> is a <CODE>PdfStream</CODE> containing an image-<CODE>Dictionary</CODE> and -stream.
@@ -70,6 +75,13 @@ public class PdfImage extends PdfStream {
      */
     protected PdfName name = null;
 
+    /**
+     * The file the data is streamed from when the image is written, or <CODE>null</CODE> if the data is in memory.
+     */
+    private URL dataUrl;
+
+    private long dataLength;
+
     // constructor
 
     /**
@@ -219,8 +231,7 @@ public class PdfImage extends PdfStream {
                         put(PdfName.LENGTH, new PdfNumber(bytes.length));
                         return;
                     }
-                    streamBytes = new ByteArrayOutputStream();
-                    transferBytes(is, streamBytes, -1);
+                    readData(is, image.getUrl());
                     break;
                 case Image.JPEG2000:
                     put(PdfName.FILTER, PdfName.JPXDECODE);
@@ -242,8 +253,7 @@ public class PdfImage extends PdfStream {
                         put(PdfName.LENGTH, new PdfNumber(bytes.length));
                         return;
                     }
-                    streamBytes = new ByteArrayOutputStream();
-                    transferBytes(is, streamBytes, -1);
+                    readData(is, image.getUrl());
                     break;
                 case Image.JBIG2:
                     put(PdfName.FILTER, PdfName.JBIG2DECODE);
@@ -254,14 +264,12 @@ public class PdfImage extends PdfStream {
                         put(PdfName.LENGTH, new PdfNumber(bytes.length));
                         return;
                     }
-                    streamBytes = new ByteArrayOutputStream();
-                    transferBytes(is, streamBytes, -1);
+                    readData(is, image.getUrl());
                     break;
                 default:
                     throw new BadPdfFormatException(
                             MessageLocalization.getComposedMessage("1.is.an.unknown.image.format", errorID));
             }
-            put(PdfName.LENGTH, new PdfNumber(streamBytes.size()));
         } catch (IOException ioe) {
             throw new BadPdfFormatException(ioe.getMessage());
         } finally {
@@ -275,6 +283,63 @@ public class PdfImage extends PdfStream {
         }
     }
 
+    /**
+     * Keeps the data of a file to be streamed from the file when the image is written. The data of other sources is
+     * read in memory.
+     *
+     * @param is  the data of the image
+     * @param url the source of the data
+     * @throws IOException on error
+     */
+    private void readData(InputStream is, URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                Path path = Paths.get(url.toURI());
+                dataUrl = url;
+                dataLength = Files.size(path);
+                put(PdfName.LENGTH, new PdfNumber(dataLength));
+                return;
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not a plain file, read in memory
+            }
+        }
+        streamBytes = new ByteArrayOutputStream();
+        transferBytes(is, streamBytes, -1);
+        put(PdfName.LENGTH, new PdfNumber(streamBytes.size()));
+    }
+
+    /**
+     * @see org.openpdf.text.pdf.PdfStream#toPdf(org.openpdf.text.pdf.PdfWriter, java.io.OutputStream)
+     */
+    public void toPdf(PdfWriter writer, OutputStream os) throws IOException {
+        if (dataUrl == null) {
+            super.toPdf(writer, os);
+            return;
+        }
+        try (InputStream in = dataUrl.openStream()) {
+            inputStream = in;
+            super.toPdf(writer, os);
+        } finally {
+            inputStream = null;
+        }
+        if (rawLength != dataLength) {
+            throw new IOException(dataUrl + " has changed since the image was loaded.");
+        }
+    }
+
+    /**
+     * @see org.openpdf.text.pdf.PdfStream#writeContent(java.io.OutputStream)
+     */
+    public void writeContent(OutputStream os) throws IOException {
+        if (dataUrl == null) {
+            super.writeContent(os);
+            return;
+        }
+        try (InputStream in = dataUrl.openStream()) {
+            transferBytes(in, os, -1);
+        }
+    }
+
     static void transferBytes(InputStream in, OutputStream out, int len) throws IOException {
         byte[] buffer = new byte[TRANSFERSIZE];
         if (len < 0) {
@@ -307,6 +372,8 @@ public class PdfImage extends PdfStream {
         compressionLevel = dup.compressionLevel;
         streamBytes = dup.streamBytes;
         bytes = dup.bytes;
+        dataUrl = dup.dataUrl;
+        dataLength = dup.dataLength;
         hashMap = dup.hashMap;
     }
 }
@@ -137,6 +137,10 @@ public class PdfPCell extends Rectangle {
      * The rotation of the cell. Possible values are 0, 90, 180 and 270.
      */
     private int rotation;
+    /**
+     * The last measurement of the content, null if the content changed since.
+     */
+    private Measurement measurement;
 
     /**
      * Constructs an empty <CODE>PdfPCell</CODE>. The default padding is 2.
@@ -264,6 +268,8 @@ public class PdfPCell extends Rectangle {
         column = ColumnText.duplicate(cell.column);
         useBorderPadding = cell.useBorderPadding;
         rotation = cell.rotation;
+        // the recorded lines are only written once, by the cell that measured them
+        measurement = cell.measurement == null ? null : cell.measurement.withoutLines();
     }
 
     /**
@@ -272,6 +278,7 @@ public class PdfPCell extends Rectangle {
      * @param element the iText element to add to the cell
      */
     public void addElement(Element element) {
+        measurement = null;
         if (table != null) {
             table = null;
             column.setText(null);
@@ -285,6 +292,8 @@ public class PdfPCell extends Rectangle {
      * @return the <CODE>Phrase</CODE>
      */
     public Phrase getPhrase() {
+        // the phrase may be changed by the caller
+        measurement = null;
         return phrase;
     }
 
@@ -294,6 +303,7 @@ public class PdfPCell extends Rectangle {
      * @param phrase the <CODE>Phrase</CODE>
      */
     public void setPhrase(Phrase phrase) {
+        measurement = null;
         table = null;
         image = null;
         column.setText(this.phrase = phrase);
@@ -315,6 +325,7 @@ public class PdfPCell extends Rectangle {
      * @param horizontalAlignment The horizontal alignment
      */
     public void setHorizontalAlignment(int horizontalAlignment) {
+        measurement = null;
         column.setAlignment(horizontalAlignment);
     }
 
@@ -504,6 +515,7 @@ public class PdfPCell extends Rectangle {
      * @param multipliedLeading the variable leading
      */
     public void setLeading(float fixedLeading, float multipliedLeading) {
+        measurement = null;
         column.setLeading(fixedLeading, multipliedLeading);
     }
 
@@ -540,6 +552,7 @@ public class PdfPCell extends Rectangle {
      * @param indent the indent
      */
     public void setIndent(float indent) {
+        measurement = null;
         column.setIndent(indent);
     }
 
@@ -558,6 +571,7 @@ public class PdfPCell extends Rectangle {
      * @param extraParagraphSpace the extra space between paragraphs
      */
     public void setExtraParagraphSpace(float extraParagraphSpace) {
+        measurement = null;
         column.setExtraParagraphSpace(extraParagraphSpace);
     }
 
@@ -711,6 +725,7 @@ public class PdfPCell extends Rectangle {
      * @param indent the indent
      */
     public void setFollowingIndent(float indent) {
+        measurement = null;
         column.setFollowingIndent(indent);
     }
 
@@ -729,6 +744,7 @@ public class PdfPCell extends Rectangle {
      * @param indent the indent
      */
     public void setRightIndent(float indent) {
+        measurement = null;
         column.setRightIndent(indent);
     }
 
@@ -750,6 +766,7 @@ public class PdfPCell extends Rectangle {
      * @param spaceCharRatio the ratio between the extra word spacing and the extra character spacing
      */
     public void setSpaceCharRatio(float spaceCharRatio) {
+        measurement = null;
         column.setSpaceCharRatio(spaceCharRatio);
     }
 
@@ -770,6 +787,7 @@ public class PdfPCell extends Rectangle {
      * @param runDirection the run direction (see above)
      */
     public void setRunDirection(int runDirection) {
+        measurement = null;
         column.setRunDirection(runDirection);
     }
 
@@ -788,6 +806,7 @@ public class PdfPCell extends Rectangle {
      * @param image New value of property image.
      */
     public void setImage(Image image) {
+        measurement = null;
         column.setText(null);
         table = null;
         this.image = image;
@@ -837,6 +856,7 @@ public class PdfPCell extends Rectangle {
      * @param arabicOptions the arabic shaping options
      */
     public void setArabicOptions(int arabicOptions) {
+        measurement = null;
         column.setArabicOptions(arabicOptions);
     }
 
@@ -855,6 +875,7 @@ public class PdfPCell extends Rectangle {
      * @param useAscender adjust height if true
      */
     public void setUseAscender(boolean useAscender) {
+        measurement = null;
         column.setUseAscender(useAscender);
     }
 
@@ -883,6 +904,8 @@ public class PdfPCell extends Rectangle {
      * @return a columntext object
      */
     public ColumnText getColumn() {
+        // the column may be changed by the caller
+        measurement = null;
         return column;
     }
 
@@ -892,6 +915,7 @@ public class PdfPCell extends Rectangle {
      * @param column the ColumnText to put in the cell
      */
     public void setColumn(ColumnText column) {
+        measurement = null;
         this.column = column;
     }
 
@@ -902,7 +926,8 @@ public class PdfPCell extends Rectangle {
      * @since 2.1.1
      */
     public List getCompositeElements() {
-        return getColumn().compositeElements;
+        measurement = null;
+        return column.compositeElements;
     }
 
     /**
@@ -938,6 +963,7 @@ public class PdfPCell extends Rectangle {
      * @since 2.1.6
      */
     void consumeHeight(float height) {
+        measurement = null;
         float rightLimit = getRight() - getEffectivePaddingRight();
         float leftLimit = getLeft() + getEffectivePaddingLeft();
         float bry = height - getEffectivePaddingTop() - getEffectivePaddingBottom();
@@ -955,6 +981,11 @@ public class PdfPCell extends Rectangle {
 
     /**
      * Returns the height of the cell.
+     * <p>
+     * Measuring the content requires laying it out. The result is kept until the position, the padding or the content
+     * of the cell change through the methods of the cell, so measuring the same cell again is cheap. Content that is
+     * changed directly, for instance a <CODE>Phrase</CODE> that was already passed to the cell, is only measured
+     * again after one of these changes.
      *
      * @return the height of the cell
      * @since 3.0.0
@@ -971,10 +1002,12 @@ public class PdfPCell extends Rectangle {
             float refHeight = pivoted ? img.getScaledWidth() : img.getScaledHeight();
             setBottom(getTop() - getEffectivePaddingTop() - getEffectivePaddingBottom() - refHeight);
         } else {
-            if ((pivoted && hasFixedHeight()) || getColumn() == null) {
+            if ((pivoted && hasFixedHeight()) || column == null) {
                 setBottom(getTop() - getFixedHeight());
+            } else if (measurement != null && measurement.isFor(this)) {
+                setBottom(measurement.bottom);
             } else {
-                ColumnText ct = ColumnText.duplicate(getColumn());
+                ColumnText ct = ColumnText.duplicate(column);
                 float right, top, left, bottom;
                 if (pivoted) {
                     right = PdfPRow.RIGHT_LIMIT;
@@ -989,6 +1022,7 @@ public class PdfPCell extends Rectangle {
                             : PdfPRow.BOTTOM_LIMIT;
                 }
                 PdfPRow.setColumn(ct, left, bottom, right, top);
+                ct.setRecordLines(!pivoted);
                 try {
                     ct.go(true);
                 } catch (DocumentException e) {
@@ -1003,6 +1037,7 @@ public class PdfPCell extends Rectangle {
                     }
                     setBottom(yLine - getEffectivePaddingBottom());
                 }
+                measurement = new Measurement(this, ct.getRecordedLines());
             }
         }
         float height = getHeight();
@@ -1013,4 +1048,97 @@ public class PdfPCell extends Rectangle {
         }
         return height;
     }
+
+    /**
+     * Duplicates the column of the cell to write its content. If the content was laid out by
+     * {@link #getMaxHeight()} for a column of the same width, the duplicate writes these lines instead of laying out
+     * the text again. The cell only keeps the measured height afterwards, so writing it again, as in a repeated
+     * header row, lays out the text again.
+     *
+     * @return a duplicate of the column
+     */
+    ColumnText duplicateColumnForWriting() {
+        ColumnText ct = ColumnText.duplicate(column);
+        if (measurement != null && measurement.isFor(this)) {
+            ct.setLinesToReplay(measurement.lines);
+            measurement.lines = null;
+        }
+        return ct;
+    }
+
+    /**
+     * Checks if the cell only holds text, which is laid out without changing objects that may be shared with other
+     * cells. Such cells can be measured on several threads.
+     *
+     * @return true if the cell holds neither an image nor composite content
+     */
+    boolean isTextOnly() {
+        return image == null && (column == null || !column.composite);
+    }
+
+    /**
+     * The bottom of the cell as measured for a position and padding, with the lines that were laid out if the
+     * content is plain text.
+     */
+    private static final class Measurement {
+
+        private final float left;
+        private final float right;
+        private final float top;
+        private final float paddingLeft;
+        private final float paddingRight;
+        private final float paddingTop;
+        private final float paddingBottom;
+        private final float fixedHeight;
+        private final int rotation;
+        private final boolean noWrap;
+        private final boolean useDescender;
+        private final float bottom;
+        private ColumnText.LineLayout lines;
+
+        Measurement(PdfPCell cell, ColumnText.LineLayout lines) {
+            left = cell.getLeft();
+            right = cell.getRight();
+            top = cell.getTop();
+            paddingLeft = cell.getEffectivePaddingLeft();
+            paddingRight = cell.getEffectivePaddingRight();
+            paddingTop = cell.getEffectivePaddingTop();
+            paddingBottom = cell.getEffectivePaddingBottom();
+            fixedHeight = cell.fixedHeight;
+            rotation = cell.rotation;
+            noWrap = cell.noWrap;
+            useDescender = cell.useDescender;
+            bottom = cell.getBottom();
+            this.lines = lines;
+        }
+
+        private Measurement(Measurement measurement) {
+            left = measurement.left;
+            right = measurement.right;
+            top = measurement.top;
+            paddingLeft = measurement.paddingLeft;
+            paddingRight = measurement.paddingRight;
+            paddingTop = measurement.paddingTop;
+            paddingBottom = measurement.paddingBottom;
+            fixedHeight = measurement.fixedHeight;
+            rotation = measurement.rotation;
+            noWrap = measurement.noWrap;
+            useDescender = measurement.useDescender;
+            bottom = measurement.bottom;
+        }
+
+        Measurement withoutLines() {
+            return lines == null ? this : new Measurement(this);
+        }
+
+        boolean isFor(PdfPCell cell) {
+            return left == cell.getLeft() && right == cell.getRight() && top == cell.getTop()
+                    && paddingLeft == cell.getEffectivePaddingLeft()
+                    && paddingRight == cell.getEffectivePaddingRight()
+                    && paddingTop == cell.getEffectivePaddingTop()
+                    && paddingBottom == cell.getEffectivePaddingBottom()
+                    && fixedHeight == cell.fixedHeight && rotation == cell.rotation && noWrap == cell.noWrap
+                    && useDescender == cell.useDescender;
+        }
+    }
 }
@@ -200,6 +200,18 @@ public class PdfPRow {
         extraHeights[cell] = height;
     }
 
+    /**
+     * Measures the cells of the row that only hold text, so that {@link #calculateHeights()} finds their
+     * measurements. Rows with distinct cells can be measured on different threads.
+     */
+    void measureTextCells() {
+        for (PdfPCell cell : cells) {
+            if (cell != null && cell.isTextOnly()) {
+                cell.getMaxHeight();
+            }
+        }
+    }
+
     /**
      * Calculates the heights of each cell in the row.
      *
@@ -507,7 +519,7 @@ public class PdfPRow {
                                 break;
                         }
                     }
-                    ColumnText ct = ColumnText.duplicate(cell.getColumn());
+                    ColumnText ct = cell.duplicateColumnForWriting();
                     ct.setCanvases(canvases);
                     float bry = tly
                             - (currentMaxHeight
@@ -59,7 +59,9 @@ import org.openpdf.text.Rectangle;
 import org.openpdf.text.error_messages.MessageLocalization;
 import org.openpdf.text.pdf.events.PdfPTableEventForwarder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.stream.IntStream;
 
 /**
  * This is a table that can be put at an absolute position but can also be added to the document as the class
@@ -93,6 +95,11 @@ public class PdfPTable implements LargeElement {
      */
     public static final int TEXTCANVAS = 3;
 
+    /**
+     * The number of consecutive rows measured by one task if the table is laid out in parallel.
+     */
+    static final int PARALLEL_LAYOUT_ROWS = 64;
+
     protected ArrayList<PdfPRow> rows = new ArrayList<>();
     protected float totalHeight = 0;
     protected PdfPCell[] currentRow;
@@ -102,6 +109,11 @@ public class PdfPTable implements LargeElement {
     protected float[] relativeWidths;
     protected float[] absoluteWidths;
     protected PdfPTableEvent tableEvent;
+    /**
+     * The column widths all row heights were calculated for, or null if rows were added, removed or handed out
+     * since.
+     */
+    private float[] calculatedWidths;
 
     /**
      * Holds value of property headerRows.
@@ -172,6 +184,15 @@ public class PdfPTable implements LargeElement {
      * Defines if the table should be kept on one page if possible
      */
     private boolean keepTogether;
+    /**
+     * Defines if the rows are measured on several threads
+     */
+    private boolean parallelLayout;
+    /**
+     * True if rows were added to a table with parallel layout without measuring them, so the total height is not up
+     * to date
+     */
+    private boolean heightsPending;
     /**
      * Holds value of property footerRows.
      */
@@ -333,6 +354,7 @@ public class PdfPTable implements LargeElement {
         skipLastFooter = sourceTable.skipLastFooter;
         horizontalAlignment = sourceTable.horizontalAlignment;
         keepTogether = sourceTable.keepTogether;
+        parallelLayout = sourceTable.parallelLayout;
         complete = sourceTable.complete;
     }
 
@@ -459,6 +481,10 @@ public class PdfPTable implements LargeElement {
             return 0;
         }
         totalHeight = 0;
+        heightsPending = false;
+        if (firsttime && parallelLayout && rows.size() > PARALLEL_LAYOUT_ROWS) {
+            measureRowsInParallel();
+        }
         for (int k = 0; k < rows.size(); ++k) {
             totalHeight += getRowHeight(k, firsttime);
         }
@@ -470,6 +496,38 @@ public class PdfPTable implements LargeElement {
                 // Exception redistributing rowspan height.
             }
             calculateHeights(false);
+            calculatedWidths = absoluteWidths.clone();
+        }
+        return totalHeight;
+    }
+
+    /**
+     * Lays out the text cells of all rows in chunks of {@link #PARALLEL_LAYOUT_ROWS} rows on the common fork join
+     * pool. The heights are then summed up in order on the calling thread, which finds the measurements in the cells.
+     */
+    private void measureRowsInParallel() {
+        int chunks = (rows.size() + PARALLEL_LAYOUT_ROWS - 1) / PARALLEL_LAYOUT_ROWS;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int end = Math.min(rows.size(), (chunk + 1) * PARALLEL_LAYOUT_ROWS);
+            for (int k = chunk * PARALLEL_LAYOUT_ROWS; k < end; ++k) {
+                PdfPRow row = rows.get(k);
+                if (row != null) {
+                    row.setWidths(absoluteWidths);
+                    row.measureTextCells();
+                }
+            }
+        });
+    }
+
+    /**
+     * Calculates the heights of the table unless they were calculated for the current column widths and no rows were
+     * added or removed since. Tables with a locked width are laid out with this method once per column they span.
+     *
+     * @return the total height of the table
+     */
+    float calculateHeightsIfChanged() {
+        if (calculatedWidths == null || !Arrays.equals(calculatedWidths, absoluteWidths)) {
+            return calculateHeights(true);
         }
         return totalHeight;
     }
@@ -542,9 +600,15 @@ public class PdfPTable implements LargeElement {
             PdfPRow row = new PdfPRow(currentRow);
             if (totalWidth > 0) {
                 row.setWidths(absoluteWidths);
-                totalHeight += row.getMaxHeights();
+                if (parallelLayout) {
+                    // measured together with the other rows by calculateHeights
+                    heightsPending = true;
+                } else {
+                    totalHeight += row.getMaxHeights();
+                }
             }
             rows.add(row);
+            calculatedWidths = null;
             currentRow = new PdfPCell[numCols];
             currentRowIdx = 0;
             skipColsWithRowspanAbove();
@@ -866,6 +930,9 @@ public class PdfPTable implements LargeElement {
      * @return the total height of the table
      */
     public float getTotalHeight() {
+        if (heightsPending) {
+            calculateHeights(true);
+        }
         return totalHeight;
     }
 
@@ -1049,6 +1116,7 @@ public class PdfPTable implements LargeElement {
             }
         }
         rows.remove(rowNumber);
+        calculatedWidths = null;
         if (rowNumber < headerRows) {
             --headerRows;
             if (rowNumber >= (headerRows - footerRows)) {
@@ -1076,6 +1144,7 @@ public class PdfPTable implements LargeElement {
             rows2.add(rows.get(k));
         }
         rows = rows2;
+        calculatedWidths = null;
         totalHeight = 0;
         if (totalWidth > 0) {
             totalHeight = getHeaderHeight();
@@ -1217,6 +1286,8 @@ public class PdfPTable implements LargeElement {
      * @return an arraylist
      */
     public ArrayList<PdfPRow> getRows() {
+        // the rows may be changed by the caller
+        calculatedWidths = null;
         return rows;
     }
 
@@ -1630,6 +1701,30 @@ public class PdfPTable implements LargeElement {
         this.keepTogether = keepTogether;
     }
 
+    /**
+     * Getter for property parallelLayout
+     *
+     * @return true if the rows are measured on several threads
+     */
+    public boolean isParallelLayout() {
+        return parallelLayout;
+    }
+
+    /**
+     * If true the heights of the rows and the line breaks of their text cells are calculated on all processors
+     * before the table is written, in chunks of consecutive rows. The rows are still placed on the pages by the
+     * calling thread. Rows added to a table with a total width are not measured by <CODE>addCell</CODE> but together
+     * when the table is written or its total height is requested. This pays off for large tables. Cells with an image
+     * or with composite content are measured on the calling thread, because their content may be shared with other
+     * cells. Fonts, phrases and hyphenation used by the text cells must not be changed while the table is laid out.
+     * The default is false.
+     *
+     * @param parallelLayout whether to measure the rows on several threads
+     */
+    public void setParallelLayout(boolean parallelLayout) {
+        this.parallelLayout = parallelLayout;
+    }
+
     /**
      * Gets the number of rows in the footer.
      *
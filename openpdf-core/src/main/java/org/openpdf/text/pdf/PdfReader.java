@@ -911,7 +911,6 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
      */
     public static byte[] getStreamBytesRaw(PRStream stream,
             RandomAccessFileOrArray file) throws IOException {
-        PdfReader reader = stream.getReader();
         byte[] b;
         if (stream.getOffset() < 0) {
             b = stream.getBytes();
@@ -919,26 +918,138 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
             b = new byte[stream.getLength()];
             file.seek(stream.getOffset());
             file.readFully(b);
-            PdfEncryption decrypt = reader.getDecrypt();
+            PdfEncryption decrypt = getStreamDecryption(stream);
             if (decrypt != null) {
-                PdfObject filter = getPdfObjectRelease(stream.get(PdfName.FILTER));
-                List<PdfObject> filters = new ArrayList<>();
-                filters = addFilters(filters, filter);
-                boolean skip = false;
-                for (PdfObject filter1 : filters) {
-                    PdfObject obj = getPdfObjectRelease(filter1);
-                    if (obj != null && obj.toString().equals("/Crypt")) {
-                        skip = true;
-                        break;
-                    }
+                decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
+                b = decrypt.decryptByteArray(b);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Get the content from a stream as it is without applying any filter, as a stream that reads and decrypts the
+     * content from the file only as it is consumed. The file is positioned before each read and it is not closed by
+     * the returned stream.
+     *
+     * @param stream the stream
+     * @param file   the location where the stream is
+     * @return the stream content
+     */
+    public static InputStream getStreamRawInputStream(PRStream stream, RandomAccessFileOrArray file) {
+        return openStreamRaw(stream, file, false);
+    }
+
+    /**
+     * Get the content from a stream applying the required filters, as a stream to be closed after use. A content
+     * without filters or only compressed with FlateDecode is read, decrypted and inflated as it is consumed, so that
+     * the whole content is never held in memory; other filters are applied like in {@link #getStreamBytes(PRStream)}.
+     * Unlike <CODE>getStreamBytes</CODE>, a corrupted compressed content is an <CODE>IOException</CODE> of the read.
+     *
+     * @param stream the stream
+     * @return the stream content
+     * @throws IOException on error
+     */
+    public static InputStream getStreamInputStream(PRStream stream) throws IOException {
+        RandomAccessFileOrArray rf = stream.getReader().getSafeFile();
+        rf.reOpen();
+        List<PdfObject> filters = addFilters(new ArrayList<>(), getPdfObjectRelease(stream.get(PdfName.FILTER)));
+        boolean inflate = false;
+        for (int j = 0; j < filters.size(); ++j) {
+            String name = getPdfObjectRelease(filters.get(j)).toString();
+            if (name.equals("/Crypt")) {
+                continue;
+            }
+            if (inflate || !(name.equals("/FlateDecode") || name.equals("/Fl")) || hasPredictor(stream, j)) {
+                try {
+                    return new ByteArrayInputStream(getStreamBytes(stream, rf));
+                } finally {
+                    rf.close();
                 }
-                if (!skip) {
-                    decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
-                    b = decrypt.decryptByteArray(b);
+            }
+            inflate = true;
+        }
+        InputStream in = openStreamRaw(stream, rf, true);
+        return inflate ? new InflaterInputStream(in) : in;
+    }
+
+    /**
+     * Gets the length of the content of a stream without any filter, reading at most the last two blocks of an AES
+     * encrypted content.
+     *
+     * @param stream the stream
+     * @param file   the location where the stream is
+     * @return the length, or -1 if it is only known by decrypting all the content
+     * @throws IOException on error
+     */
+    static int getStreamRawLength(PRStream stream, RandomAccessFileOrArray file) throws IOException {
+        if (stream.getOffset() < 0) {
+            return stream.getBytes().length;
+        }
+        PdfEncryption decrypt = getStreamDecryption(stream);
+        if (decrypt == null) {
+            return stream.getLength();
+        }
+        byte[] tail = new byte[Math.min(32, stream.getLength())];
+        file.seek(stream.getOffset() + stream.getLength() - tail.length);
+        file.readFully(tail);
+        decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
+        return decrypt.calculateDecryptedSize(stream.getLength(), tail);
+    }
+
+    private static InputStream openStreamRaw(PRStream stream, RandomAccessFileOrArray file, boolean closeFile) {
+        if (stream.getOffset() < 0) {
+            if (closeFile) {
+                try {
+                    file.close();
+                } catch (Exception ignored) {
                 }
             }
+            return new ByteArrayInputStream(stream.getBytes());
         }
-        return b;
+        InputStream in = new StreamRangeInputStream(file, stream.getOffset(), stream.getLength(), closeFile);
+        PdfEncryption decrypt = getStreamDecryption(stream);
+        if (decrypt != null) {
+            decrypt.setHashKey(stream.getObjNum(), stream.getObjGen());
+            in = decrypt.getDecryptionStream(in);
+        }
+        return in;
+    }
+
+    /**
+     * Gets the decryption of a stream, unless the document is not encrypted or the stream has its own Crypt filter.
+     */
+    private static PdfEncryption getStreamDecryption(PRStream stream) {
+        PdfEncryption decrypt = stream.getReader().getDecrypt();
+        if (decrypt == null) {
+            return null;
+        }
+        List<PdfObject> filters = addFilters(new ArrayList<>(), getPdfObjectRelease(stream.get(PdfName.FILTER)));
+        for (PdfObject filter : filters) {
+            PdfObject obj = getPdfObjectRelease(filter);
+            if (obj != null && obj.toString().equals("/Crypt")) {
+                return null;
+            }
+        }
+        return decrypt;
+    }
+
+    private static boolean hasPredictor(PRStream stream, int filterIndex) {
+        PdfObject dpo = getPdfObjectRelease(stream.get(PdfName.DECODEPARMS));
+        if (dpo == null || (!dpo.isDictionary() && !dpo.isArray())) {
+            dpo = getPdfObjectRelease(stream.get(PdfName.DP));
+        }
+        if (dpo != null && dpo.isArray()) {
+            List<PdfObject> dp = ((PdfArray) dpo).getElements();
+            dpo = filterIndex < dp.size() ? dp.get(filterIndex) : null;
+        } else if (filterIndex > 0) {
+            dpo = null;
+        }
+        if (dpo == null || !dpo.isDictionary()) {
+            return false;
+        }
+        PdfObject predictor = getPdfObject(((PdfDictionary) dpo).get(PdfName.PREDICTOR));
+        return predictor != null && predictor.isNumber() && ((PdfNumber) predictor).intValue() >= 10;
     }
 
     private static List<PdfObject> addFilters(List<PdfObject> filters, PdfObject filter) {
@@ -4267,4 +4378,59 @@ public class PdfReader implements PdfViewerPreferences, Closeable {
         }
     }
 
+
+    /**
+     * Reads the bytes of a stream from the file. The file may be read elsewhere between two reads.
+     */
+    private static final class StreamRangeInputStream extends InputStream {
+
+        private final RandomAccessFileOrArray file;
+        private final boolean closeFile;
+        private long position;
+        private int remaining;
+
+        StreamRangeInputStream(RandomAccessFileOrArray file, int offset, int length, boolean closeFile) {
+            this.file = file;
+            this.position = offset;
+            this.remaining = length;
+            this.closeFile = closeFile;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            file.seek(position);
+            int n = file.read(b, off, Math.min(len, remaining));
+            if (n < 0) {
+                throw new IOException(MessageLocalization.getComposedMessage("unexpected.end.of.file"));
+            }
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return remaining;
+        }
+
+        @Override
+        public void close() throws IOException {
+            remaining = 0;
+            if (closeFile) {
+                file.close();
+            }
+        }
+    }
 }
@@ -357,13 +357,14 @@ public class PdfStream extends PdfDictionary {
             inputStreamLength = osc.getCounter();
         } else {
             if (crypto != null && !crypto.isEmbeddedFilesOnly()) {
-                byte[] b;
+                // encrypted straight into the output, without copies of the bytes
+                OutputStreamEncryption ose = crypto.getEncryptionStream(os);
                 if (streamBytes != null) {
-                    b = crypto.encryptByteArray(streamBytes.toByteArray());
+                    streamBytes.writeTo(ose);
                 } else {
-                    b = crypto.encryptByteArray(bytes);
+                    ose.write(bytes);
                 }
-                os.write(b);
+                ose.finish();
             } else {
                 if (streamBytes != null) {
                     streamBytes.writeTo(os);
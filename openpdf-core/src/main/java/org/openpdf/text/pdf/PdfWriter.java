@@ -78,12 +78,15 @@ import java.awt.color.ICC_Profile;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -534,6 +537,10 @@ public class PdfWriter extends DocWriter implements
      * Mask to separate the encryption type from the encryption mode.
      */
     static final int ENCRYPTION_MASK = 7;
+    /**
+     * The number of image fingerprints kept to find images already written.
+     */
+    static final int IMAGE_FINGERPRINTS = 1000;
     /**
      * Stores the PDF/X level.
      */
@@ -542,6 +549,20 @@ public class PdfWriter extends DocWriter implements
      * This is the list with all the images in the document.
      */
     private final HashMap<Long, PdfName> images = new HashMap<>();
+    /**
+     * The names of the images already written, by the fingerprint of their dictionary and data. Only the most recent
+     * images are kept.
+     */
+    private final Map<String, PdfName> imageFingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PdfName> eldest) {
+            return size() > IMAGE_FINGERPRINTS;
+        }
+    };
+    /**
+     * Whether images with the same content are written once.
+     */
+    private boolean deduplicateImages = true;
     /**
      * the pdfdocument object.
      */
@@ -2048,6 +2069,26 @@ public class PdfWriter extends DocWriter implements
         }
     }
 
+    /**
+     * Checks if images with the same content are written once.
+     *
+     * @return <CODE>true</CODE> if images with the same content are written once
+     */
+    public boolean isDeduplicateImages() {
+        return deduplicateImages;
+    }
+
+    /**
+     * Sets whether images with the same content are written once. Different <CODE>Image</CODE> instances, like a
+     * logo loaded again for every page, then share the image XObject written for the first of them. It is on by
+     * default.
+     *
+     * @param deduplicateImages <CODE>true</CODE> to write images with the same content once
+     */
+    public void setDeduplicateImages(boolean deduplicateImages) {
+        this.deduplicateImages = deduplicateImages;
+    }
+
     /**
      * Adds a <CODE>BaseFont</CODE> to the document but not to the page resources. It is used for templates.
      *
@@ -2833,6 +2874,16 @@ public class PdfWriter extends DocWriter implements
                         i.put(PdfName.DECODEPARMS, decodeparms);
                     }
                 }
+                // the same content from another Image instance is written only once
+                String fingerprint = null;
+                if (deduplicateImages && fixedRef == null) {
+                    fingerprint = getImageFingerprint(i, image);
+                    PdfName written = imageFingerprints.get(fingerprint);
+                    if (written != null) {
+                        images.put(image.getMySerialId(), written);
+                        return written;
+                    }
+                }
                 if (image.hasICCProfile()) {
                     PdfICCBased icc = new PdfICCBased(image.getICCProfile(), image.getCompressionLevel());
                     PdfIndirectReference iccRef = add(icc);
@@ -2852,12 +2903,45 @@ public class PdfWriter extends DocWriter implements
                 }
                 add(i, fixedRef);
                 name = i.name();
+                if (fingerprint != null) {
+                    imageFingerprints.put(fingerprint, name);
+                }
             }
             images.put(image.getMySerialId(), name);
         }
         return name;
     }
 
+    /**
+     * Computes a digest of what is written for an image: its dictionary, its data and its ICC profile.
+     *
+     * @param pdfImage the image XObject
+     * @param image    the image
+     * @return the digest in hexadecimal
+     */
+    private static String getImageFingerprint(PdfImage pdfImage, Image image) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer bb = new ByteBuffer();
+            Object[] keys = pdfImage.getKeys().toArray();
+            Arrays.sort(keys);
+            for (Object key : keys) {
+                ((PdfName) key).toPdf(null, bb);
+                bb.append(' ');
+                pdfImage.get((PdfName) key).toPdf(null, bb);
+                bb.append('\n');
+            }
+            digest.update(bb.getBuffer(), 0, bb.size());
+            pdfImage.writeContent(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            if (image.hasICCProfile()) {
+                digest.update(image.getICCProfile().getData());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            throw new ExceptionConverter(e);
+        }
+    }
+
     /**
      * Writes a <CODE>PdfImage</CODE> to the outputstream.
      *
@@ -108,6 +108,63 @@ public class StandardDecryption {
         }
     }
 
+    /**
+     * Decrypts a part of the data into a buffer of the caller.
+     *
+     * @param b    the encrypted data
+     * @param off  the start of the data
+     * @param len  the length of the data
+     * @param out  the buffer, with at least {@link #getOutputSize(int)} bytes from outOff
+     * @param outOff the start of the decrypted data in the buffer
+     * @return the number of bytes decrypted
+     */
+    public int update(byte[] b, int off, int len, byte[] out, int outOff) {
+        if (!aes) {
+            arcfour.encryptARCFOUR(b, off, len, out, outOff);
+            return len;
+        }
+        if (!initiated) {
+            int left = Math.min(iv.length - ivptr, len);
+            System.arraycopy(b, off, iv, ivptr, left);
+            off += left;
+            len -= left;
+            ivptr += left;
+            if (ivptr < iv.length) {
+                return 0;
+            }
+            cipher = new AESCipher(false, key, iv);
+            initiated = true;
+        }
+        return cipher.update(b, off, len, out, outOff);
+    }
+
+    /**
+     * Gets the size of the buffer needed by {@link #update(byte[], int, int, byte[], int)}.
+     *
+     * @param len the length of the encrypted data
+     * @return the maximum number of bytes decrypted
+     */
+    public int getOutputSize(int len) {
+        if (!aes) {
+            return len;
+        }
+        return initiated ? cipher.getUpdateOutputSize(len) : Math.max(0, len - (iv.length - ivptr));
+    }
+
+    /**
+     * Decrypts the end of the data into a buffer of the caller.
+     *
+     * @param out    the buffer, with at least 16 bytes from outOff
+     * @param outOff the start of the decrypted data in the buffer
+     * @return the number of bytes decrypted
+     */
+    public int finish(byte[] out, int outOff) {
+        if (aes && cipher != null) {
+            return cipher.doFinal(out, outOff);
+        }
+        return 0;
+    }
+
     public byte[] finish() {
         if (aes && cipher != null) {
             return cipher.doFinal();
@@ -56,9 +56,13 @@ import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -168,6 +172,32 @@ class TrueTypeFont extends BaseFont {
      * The index for the TTC font. It is an empty <CODE>String</CODE> for a TTF file.
      */
     protected String ttcIndex;
+    /**
+     * The table directory and the table loca, read when the first subset of the font is made.
+     */
+    private volatile TrueTypeFontSubSet.FontTables subsetTables;
+    /**
+     * The default total size in bytes of the subsets kept by all fonts.
+     */
+    static final long DEFAULT_SUBSET_CACHE_SIZE = 8 * 1024 * 1024;
+    /**
+     * The last subsets made of all fonts, in access order, keyed by font and glyphs. Documents made from the same
+     * template often use the same glyphs.
+     */
+    private static final Map<SubsetKey, byte[]> subsets = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The total size in bytes of the kept subsets.
+     */
+    private static long subsetsSize;
+    /**
+     * The maximum total size in bytes of the kept subsets.
+     */
+    private static long subsetCacheSize = DEFAULT_SUBSET_CACHE_SIZE;
+    private static final AtomicLong nextSubsetFontId = new AtomicLong();
+    /**
+     * Identifies the subsets of this font without keeping the font alive.
+     */
+    private final long subsetFontId = nextSubsetFontId.incrementAndGet();
     /**
      * The style modifier
      */
@@ -1364,9 +1394,7 @@ class TrueTypeFont extends BaseFont {
                 addRangeUni(glyphs, false, subsetp);
                 byte[] b = null;
                 if (subsetp || directoryOffset != 0 || subsetRanges != null) {
-                    TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), glyphs,
-                            directoryOffset, true, !subsetp);
-                    b = sb.process();
+                    b = getSubset(TrueTypeFontSubSet.toBitSet(glyphs), true, !subsetp);
                 } else {
                     b = getFullFont();
                 }
@@ -1385,6 +1413,73 @@ class TrueTypeFont extends BaseFont {
         writer.addToBody(pobj, ref);
     }
 
+    /**
+     * Sets the total size in bytes of the subsets kept by all fonts.
+     *
+     * @param size the maximum size, 0 switches the cache off
+     */
+    static void setSubsetCacheSize(long size) {
+        synchronized (subsets) {
+            subsetCacheSize = Math.max(0, size);
+            trimSubsets();
+        }
+    }
+
+    /**
+     * Returns the total size in bytes of the subsets kept by all fonts.
+     *
+     * @return the maximum size
+     */
+    static long getSubsetCacheSize() {
+        synchronized (subsets) {
+            return subsetCacheSize;
+        }
+    }
+
+    private static void trimSubsets() {
+        Iterator<byte[]> it = subsets.values().iterator();
+        while (subsetsSize > subsetCacheSize && it.hasNext()) {
+            subsetsSize -= it.next().length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Subsets the font. The tables the subset is made from are read from the file once, and the last subsets of all
+     * fonts are kept up to {@link BaseFont#getFontSubsetCacheSize()}, so documents using the same glyphs of a font
+     * share one subset.
+     *
+     * @param glyphs        the glyphs to include, which are not changed
+     * @param includeCmap   <CODE>true</CODE> if the table cmap is to be included in the generated font
+     * @param includeExtras <CODE>true</CODE> if the tables OS/2 and name are to be included
+     * @return the subset font, which must not be changed
+     * @throws IOException       on error
+     * @throws DocumentException on error
+     */
+    byte[] getSubset(BitSet glyphs, boolean includeCmap, boolean includeExtras)
+            throws IOException, DocumentException {
+        SubsetKey key = new SubsetKey(subsetFontId, glyphs, includeCmap, includeExtras);
+        byte[] b;
+        synchronized (subsets) {
+            b = subsets.get(key);
+        }
+        if (b == null) {
+            TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), glyphs,
+                    directoryOffset, subsetTables, includeCmap, includeExtras);
+            b = sb.process();
+            subsetTables = sb.getTables();
+            synchronized (subsets) {
+                // a large subset would push out all the others
+                if (b.length <= subsetCacheSize / 4) {
+                    byte[] old = subsets.put(key, b);
+                    subsetsSize += b.length - (old == null ? 0 : old.length);
+                    trimSubsets();
+                }
+            }
+        }
+        return b;
+    }
+
     /**
      * If this font file is using the Compact Font File Format, then this method will return the raw bytes needed for
      * the font stream. If this method is ever made public: make sure to add a test if (cff == true).
@@ -1838,4 +1933,14 @@ class TrueTypeFont extends BaseFont {
          */
         int sCapHeight;
     }
+
+    /**
+     * The font, glyphs and tables of a subset.
+     */
+    private record SubsetKey(long fontId, BitSet glyphs, boolean includeCmap, boolean includeExtras) {
+
+        private SubsetKey {
+            glyphs = (BitSet) glyphs.clone();
+        }
+    }
 }
@@ -53,9 +53,10 @@ import org.openpdf.text.DocumentException;
 import org.openpdf.text.ExceptionConverter;
 import org.openpdf.text.error_messages.MessageLocalization;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.Map;
 
 
 /**
@@ -89,7 +90,7 @@ class TrueTypeFontSubSet {
      * <CODE>int[3]</CODE> where position 0 is the checksum, position 1 is the offset from the start of the file and
      * position 2 is the length of the table.
      */
-    protected HashMap<String, int[]> tableDirectory;
+    protected Map<String, int[]> tableDirectory;
     /**
      * The file in use.
      */
@@ -102,8 +103,9 @@ class TrueTypeFontSubSet {
     protected boolean includeExtras;
     protected boolean locaShortTable;
     protected int[] locaTable;
-    protected HashMap<Integer, int[]> glyphsUsed;
-    protected ArrayList<Integer> glyphsInList;
+    protected BitSet glyphsUsed;
+    protected int[] glyphsInList;
+    protected int glyphsInListSize;
     protected int tableGlyphOffset;
     protected int[] newLocaTable;
     protected byte[] newLocaTableOut;
@@ -113,24 +115,47 @@ class TrueTypeFontSubSet {
     protected byte[] outFont;
     protected int fontPtr;
     protected int directoryOffset;
+    /**
+     * The tables of the font as read by an earlier subset, or null
+     */
+    protected FontTables tables;
 
     /**
      * Creates a new TrueTypeFontSubSet
      *
-     * @param directoryOffset The offset from the start of the file to the table directory
      * @param fileName        the file name of the font
-     * @param glyphsUsed      the glyphs used
+     * @param rf              the font file
+     * @param glyphsUsed      the glyphs used, which are not changed
+     * @param directoryOffset The offset from the start of the file to the table directory
+     * @param tables          the tables read by an earlier subset of the same font, or null to read them
      * @param includeCmap     <CODE>true</CODE> if the table cmap is to be included in the generated font
+     * @param includeExtras   <CODE>true</CODE> if the tables OS/2 and name are to be included
      */
-    TrueTypeFontSubSet(String fileName, RandomAccessFileOrArray rf, HashMap<Integer, int[]> glyphsUsed,
-            int directoryOffset, boolean includeCmap, boolean includeExtras) {
+    TrueTypeFontSubSet(String fileName, RandomAccessFileOrArray rf, BitSet glyphsUsed, int directoryOffset,
+            FontTables tables, boolean includeCmap, boolean includeExtras) {
         this.fileName = fileName;
         this.rf = rf;
-        this.glyphsUsed = glyphsUsed;
+        this.glyphsUsed = (BitSet) glyphsUsed.clone();
         this.includeCmap = includeCmap;
         this.includeExtras = includeExtras;
         this.directoryOffset = directoryOffset;
-        glyphsInList = new ArrayList<>(glyphsUsed.keySet());
+        this.tables = tables;
+        glyphsInList = this.glyphsUsed.stream().toArray();
+        glyphsInListSize = glyphsInList.length;
+    }
+
+    /**
+     * Collects the keys of a map of glyphs.
+     *
+     * @param glyphs the glyphs, keyed by glyph number
+     * @return the glyph numbers
+     */
+    static BitSet toBitSet(Map<Integer, int[]> glyphs) {
+        BitSet set = new BitSet();
+        for (Integer glyph : glyphs.keySet()) {
+            set.set(glyph);
+        }
+        return set;
     }
 
     /**
@@ -143,8 +168,12 @@ class TrueTypeFontSubSet {
     byte[] process() throws IOException, DocumentException {
         try {
             rf.reOpen();
-            createTableDirectory();
-            readLoca();
+            if (tables == null) {
+                tables = readTables(fileName, rf, directoryOffset);
+            }
+            tableDirectory = tables.tableDirectory;
+            locaShortTable = tables.locaShortTable;
+            locaTable = tables.locaTable;
             flatGlyphs();
             createNewGlyphTables();
             locaTobytes();
@@ -159,6 +188,15 @@ class TrueTypeFontSubSet {
         }
     }
 
+    /**
+     * Gets the tables of the font, which can be passed to the next subset of the same font.
+     *
+     * @return the tables read by {@link #process()}
+     */
+    FontTables getTables() {
+        return tables;
+    }
+
     protected void assembleFont() throws IOException {
         int[] tableLocation;
         int fullFontSize = 0;
@@ -238,8 +276,19 @@ class TrueTypeFontSubSet {
         }
     }
 
-    protected void createTableDirectory() throws IOException, DocumentException {
-        tableDirectory = new HashMap<>();
+    /**
+     * Reads the table directory and the table loca of a font.
+     *
+     * @param fileName        the file name of the font
+     * @param rf              the open font file
+     * @param directoryOffset the offset from the start of the file to the table directory
+     * @return the tables
+     * @throws IOException       on error
+     * @throws DocumentException on error
+     */
+    static FontTables readTables(String fileName, RandomAccessFileOrArray rf, int directoryOffset)
+            throws IOException, DocumentException {
+        Map<String, int[]> tableDirectory = new HashMap<>();
         rf.seek(directoryOffset);
         int id = rf.readInt();
         if (id != 0x00010000) {
@@ -248,16 +297,14 @@ class TrueTypeFontSubSet {
         int num_tables = rf.readUnsignedShort();
         rf.skipBytes(6);
         for (int k = 0; k < num_tables; ++k) {
-            String tag = readStandardString(4);
+            String tag = readStandardString(rf, 4);
             int[] tableLocation = new int[3];
             tableLocation[TABLE_CHECKSUM] = rf.readInt();
             tableLocation[TABLE_OFFSET] = rf.readInt();
             tableLocation[TABLE_LENGTH] = rf.readInt();
             tableDirectory.put(tag, tableLocation);
         }
-    }
 
-    protected void readLoca() throws IOException, DocumentException {
         int[] tableLocation;
         tableLocation = tableDirectory.get("head");
         if (tableLocation == null) {
@@ -265,13 +312,14 @@ class TrueTypeFontSubSet {
                     MessageLocalization.getComposedMessage("table.1.does.not.exist.in.2", "head", fileName));
         }
         rf.seek(tableLocation[TABLE_OFFSET] + HEAD_LOCA_FORMAT_OFFSET);
-        locaShortTable = (rf.readUnsignedShort() == 0);
+        boolean locaShortTable = (rf.readUnsignedShort() == 0);
         tableLocation = tableDirectory.get("loca");
         if (tableLocation == null) {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("table.1.does.not.exist.in.2", "loca", fileName));
         }
         rf.seek(tableLocation[TABLE_OFFSET]);
+        int[] locaTable;
         if (locaShortTable) {
             int entries = tableLocation[TABLE_LENGTH] / 2;
             locaTable = new int[entries];
@@ -285,15 +333,12 @@ class TrueTypeFontSubSet {
                 locaTable[k] = rf.readInt();
             }
         }
+        return new FontTables(tableDirectory, locaShortTable, locaTable);
     }
 
     protected void createNewGlyphTables() throws IOException {
         newLocaTable = new int[locaTable.length];
-        int[] activeGlyphs = new int[glyphsInList.size()];
-        for (int k = 0; k < activeGlyphs.length; ++k) {
-            activeGlyphs[k] = glyphsInList.get(k);
-        }
-        Arrays.sort(activeGlyphs);
+        int[] activeGlyphs = glyphsUsed.stream().toArray();
         int glyfSize = 0;
         for (int glyph : activeGlyphs) {
             glyfSize += locaTable[glyph + 1] - locaTable[glyph];
@@ -348,17 +393,27 @@ class TrueTypeFontSubSet {
             throw new DocumentException(
                     MessageLocalization.getComposedMessage("table.1.does.not.exist.in.2", "glyf", fileName));
         }
-        Integer glyph0 = 0;
-        if (!glyphsUsed.containsKey(glyph0)) {
-            glyphsUsed.put(glyph0, null);
-            glyphsInList.add(glyph0);
-        }
+        addGlyph(0);
         tableGlyphOffset = tableLocation[TABLE_OFFSET];
-        for (int k = 0; k < glyphsInList.size(); ++k) {
-            // TODO: concurrent List modification error in checkGlyphComposite(glyph)
-            int glyph = glyphsInList.get(k);
-            checkGlyphComposite(glyph);
+        for (int k = 0; k < glyphsInListSize; ++k) {
+            checkGlyphComposite(glyphsInList[k]);
+        }
+    }
+
+    /**
+     * Adds a glyph to the subset unless it is already included.
+     *
+     * @param glyph the glyph number
+     */
+    protected void addGlyph(int glyph) {
+        if (glyphsUsed.get(glyph)) {
+            return;
+        }
+        glyphsUsed.set(glyph);
+        if (glyphsInListSize == glyphsInList.length) {
+            glyphsInList = Arrays.copyOf(glyphsInList, Math.max(16, 2 * glyphsInListSize));
         }
+        glyphsInList[glyphsInListSize++] = glyph;
     }
 
     protected void checkGlyphComposite(int glyph) throws IOException {
@@ -375,11 +430,7 @@ class TrueTypeFontSubSet {
         rf.skipBytes(8);
         for (; ; ) {
             int flags = rf.readUnsignedShort();
-            Integer cGlyph = rf.readUnsignedShort();
-            if (!glyphsUsed.containsKey(cGlyph)) {
-                glyphsUsed.put(cGlyph, null);
-                glyphsInList.add(cGlyph);
-            }
+            addGlyph(rf.readUnsignedShort());
             if ((flags & MORE_COMPONENTS) == 0) {
                 return;
             }
@@ -409,6 +460,10 @@ class TrueTypeFontSubSet {
      * @throws IOException the font file could not be read
      */
     protected String readStandardString(int length) throws IOException {
+        return readStandardString(rf, length);
+    }
+
+    private static String readStandardString(RandomAccessFileOrArray rf, int length) throws IOException {
         byte[] buf = new byte[length];
         rf.readFully(buf);
         try {
@@ -451,4 +506,21 @@ class TrueTypeFontSubSet {
         }
         return v0 + (v1 << 8) + (v2 << 16) + (v3 << 24);
     }
+
+    /**
+     * The parts of a font file that do not depend on the glyphs of a subset. They are read once per font and shared
+     * by all its subsets.
+     */
+    static final class FontTables {
+
+        final Map<String, int[]> tableDirectory;
+        final boolean locaShortTable;
+        final int[] locaTable;
+
+        FontTables(Map<String, int[]> tableDirectory, boolean locaShortTable, int[] locaTable) {
+            this.tableDirectory = tableDirectory;
+            this.locaShortTable = locaShortTable;
+            this.locaTable = locaTable;
+        }
+    }
 }
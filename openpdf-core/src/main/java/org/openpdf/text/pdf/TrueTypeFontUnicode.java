@@ -236,13 +236,17 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
     }
 
     int[][] getSentenceMissingCmap(String text, GlyphVector glyphVector) {
+        int numGlyphs = glyphVector.getNumGlyphs();
+        return getSentenceMissingCmap(text, glyphVector.getGlyphCodes(0, numGlyphs, null),
+                glyphVector.getGlyphCharIndices(0, numGlyphs, null));
+    }
+
+    int[][] getSentenceMissingCmap(String text, int[] glyphCodes, int[] charIndices) {
         char[] chars = text.toCharArray();
-        int[] glyphCodes = glyphVector.getGlyphCodes(0, glyphVector.getNumGlyphs(),
-                new int[glyphVector.getNumGlyphs()]);
 
         List<int[]> missingCmapList = new ArrayList<>();
         for (int i = 0; i < glyphCodes.length; i++) {
-            int charIndex = glyphVector.getGlyphCharIndex(i);
+            int charIndex = charIndices[i];
             int glyphCode = glyphCodes[i];
             Integer cmapCharactherCode = getCharacterCode(glyphCode);
             if (cmapCharactherCode == null) {
@@ -475,9 +479,7 @@ class TrueTypeFontUnicode extends TrueTypeFont implements Comparator<int[]> {
         } else {
             byte[] b;
             if (subset || directoryOffset != 0) {
-                TrueTypeFontSubSet sb = new TrueTypeFontSubSet(fileName, new RandomAccessFileOrArray(rf), longTag,
-                        directoryOffset, false, false);
-                b = sb.process();
+                b = getSubset(TrueTypeFontSubSet.toBitSet(longTag), false, false);
             } else {
                 b = getFullFont();
             }
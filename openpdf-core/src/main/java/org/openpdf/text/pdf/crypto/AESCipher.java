@@ -48,21 +48,34 @@
  */
 package org.openpdf.text.pdf.crypto;
 
-import org.bouncycastle.crypto.BlockCipher;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.CBCBlockCipher;
-import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
-import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.openpdf.text.ExceptionConverter;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 /**
  * Creates an AES Cipher with CBC and padding PKCS5/7.
+ * <p>
+ * The cipher is provided by the JCE, which uses the AES instructions of the processor where available. When
+ * decrypting, the padding is removed by this class, so that data with an invalid padding is returned as decrypted
+ * rather than rejected, as PDF readers do.
  *
  * @author Paulo Soares (psoares@consiste.pt)
  */
 public class AESCipher {
 
-    private final PaddedBufferedBlockCipher bp;
+    private static final int BLOCK_SIZE = 16;
+    private static final byte[] NO_OUTPUT = new byte[0];
+
+    private final Cipher cipher;
+    private final boolean forEncryption;
+    /**
+     * The last block of the input when decrypting, which is held back because it may be padding
+     */
+    private final byte[] held = new byte[BLOCK_SIZE];
+    private int heldLen;
 
     /**
      * Creates a new instance of AESCipher
@@ -72,33 +85,137 @@ public class AESCipher {
      * @param key           Bytes for key
      */
     public AESCipher(boolean forEncryption, byte[] key, byte[] iv) {
-        BlockCipher aes = new AESEngine();
-        BlockCipher cbc = new CBCBlockCipher(aes);
-        bp = new PaddedBufferedBlockCipher(cbc);
-        KeyParameter kp = new KeyParameter(key);
-        ParametersWithIV piv = new ParametersWithIV(kp, iv);
-        bp.init(forEncryption, piv);
+        this.forEncryption = forEncryption;
+        try {
+            cipher = Cipher.getInstance(forEncryption ? "AES/CBC/PKCS5Padding" : "AES/CBC/NoPadding");
+            cipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"),
+                    new IvParameterSpec(iv));
+        } catch (GeneralSecurityException e) {
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    /**
+     * Gets the size of the output of {@link #update(byte[], int, int, byte[], int)} for the given input.
+     *
+     * @param inpLen the length of the input
+     * @return the maximum number of bytes written
+     */
+    public int getUpdateOutputSize(int inpLen) {
+        if (forEncryption) {
+            return cipher.getOutputSize(inpLen) - BLOCK_SIZE;
+        }
+        int total = heldLen + inpLen;
+        // a complete last block is held back
+        return Math.max(0, total - (total % BLOCK_SIZE == 0 ? BLOCK_SIZE : total % BLOCK_SIZE));
+    }
+
+    /**
+     * Gets the maximum size of the output of {@link #doFinal(byte[], int)}.
+     *
+     * @return the maximum number of bytes written
+     */
+    public int getFinalOutputSize() {
+        return forEncryption ? cipher.getOutputSize(0) : heldLen;
+    }
+
+    /**
+     * Processes a part of the input into a buffer of the caller.
+     *
+     * @param inp    the input
+     * @param inpOff the start of the input
+     * @param inpLen the length of the input
+     * @param outp   the output, with at least {@link #getUpdateOutputSize(int)} bytes from outOff
+     * @param outOff the start of the output
+     * @return the number of bytes written
+     */
+    public int update(byte[] inp, int inpOff, int inpLen, byte[] outp, int outOff) {
+        try {
+            if (forEncryption) {
+                return cipher.update(inp, inpOff, inpLen, outp == null ? NO_OUTPUT : outp, outOff);
+            }
+            int written = 0;
+            if (heldLen + inpLen <= BLOCK_SIZE) {
+                System.arraycopy(inp, inpOff, held, heldLen, inpLen);
+                heldLen += inpLen;
+                return 0;
+            }
+            // complete the held block and decrypt it, unless it may still be the last one
+            if (heldLen > 0) {
+                int fill = BLOCK_SIZE - heldLen;
+                System.arraycopy(inp, inpOff, held, heldLen, fill);
+                inpOff += fill;
+                inpLen -= fill;
+                written = cipher.update(held, 0, BLOCK_SIZE, outp, outOff);
+                heldLen = 0;
+            }
+            int tail = inpLen % BLOCK_SIZE == 0 ? BLOCK_SIZE : inpLen % BLOCK_SIZE;
+            int direct = inpLen - tail;
+            if (direct > 0) {
+                written += cipher.update(inp, inpOff, direct, outp, outOff + written);
+            }
+            System.arraycopy(inp, inpOff + direct, held, 0, tail);
+            heldLen = tail;
+            return written;
+        } catch (GeneralSecurityException e) {
+            throw new ExceptionConverter(e);
+        }
+    }
+
+    /**
+     * Processes the end of the input into a buffer of the caller.
+     *
+     * @param outp   the output, with at least {@link #getFinalOutputSize()} bytes from outOff
+     * @param outOff the start of the output
+     * @return the number of bytes written
+     */
+    public int doFinal(byte[] outp, int outOff) {
+        try {
+            if (forEncryption) {
+                return cipher.doFinal(outp, outOff);
+            }
+            if (heldLen != BLOCK_SIZE) {
+                // the input is not a multiple of the block size, the rest cannot be decrypted
+                int n = heldLen;
+                Arrays.fill(outp, outOff, outOff + n, (byte) 0);
+                heldLen = 0;
+                return n;
+            }
+            int n = cipher.doFinal(held, 0, BLOCK_SIZE, outp, outOff);
+            heldLen = 0;
+            int pad = outp[outOff + n - 1] & 0xff;
+            if (pad == 0 || pad > n) {
+                return n;
+            }
+            for (int k = n - pad; k < n - 1; ++k) {
+                if ((outp[outOff + k] & 0xff) != pad) {
+                    return n;
+                }
+            }
+            return n - pad;
+        } catch (GeneralSecurityException e) {
+            throw new ExceptionConverter(e);
+        }
     }
 
     public byte[] update(byte[] inp, int inpOff, int inpLen) {
-        int neededLen = bp.getUpdateOutputSize(inpLen);
+        int neededLen = getUpdateOutputSize(inpLen);
         byte[] outp = null;
         if (neededLen > 0) {
             outp = new byte[neededLen];
         }
-        bp.processBytes(inp, inpOff, inpLen, outp, 0);
+        int n = update(inp, inpOff, inpLen, outp, 0);
+        if (outp != null && n != outp.length) {
+            byte[] outp2 = new byte[n];
+            System.arraycopy(outp, 0, outp2, 0, n);
+            return outp2;
+        }
         return outp;
     }
 
     public byte[] doFinal() {
-        int neededLen = bp.getOutputSize(0);
-        byte[] outp = new byte[neededLen];
-        int n;
-        try {
-            n = bp.doFinal(outp, 0);
-        } catch (Exception ex) {
-            return outp;
-        }
+        byte[] outp = new byte[getFinalOutputSize()];
+        int n = doFinal(outp, 0);
         if (n != outp.length) {
             byte[] outp2 = new byte[n];
             System.arraycopy(outp, 0, outp2, 0, n);
@@ -4,10 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.InflaterInputStream;
 import org.junit.jupiter.api.Test;
 import org.openpdf.text.pdf.PdfName;
 
@@ -177,4 +180,49 @@ class ImageTest {
         assertThat(image.getAdditional().get(PdfName.COLORSPACE)).isNotNull();
     }
 
+    @Test
+    void shouldConvertOpaqueBufferedImagesLikeTheirPixels() throws Exception {
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_BYTE_GRAY};
+        for (int type : types) {
+            BufferedImage bufferedImage = new BufferedImage(37, 23, type);
+            for (int y = 0; y < 23; y++) {
+                for (int x = 0; x < 37; x++) {
+                    bufferedImage.setRGB(x, y, 0xff000000 | (x * 6) << 16 | (y * 11) << 8 | (x * y) & 0xff);
+                }
+            }
+            // a sub-image has offsets in the raster
+            BufferedImage subImage = bufferedImage.getSubimage(3, 2, 30, 20);
+            Image image = Image.getInstance(subImage, null);
+            assertThat(image.isDeflated()).isTrue();
+            assertThat(image.getImageMask()).isNull();
+
+            // the same pixels through a PixelGrabber
+            java.awt.Image awtImage = Toolkit.getDefaultToolkit().createImage(subImage.getSource());
+            Image grabbed = Image.getInstance(awtImage, null);
+            byte[] expected = grabbed.getRawData();
+            byte[] actual = new InflaterInputStream(new ByteArrayInputStream(image.getRawData())).readAllBytes();
+            if (type == BufferedImage.TYPE_BYTE_GRAY) {
+                assertThat(image.getColorspace()).isEqualTo(1);
+                byte[] gray = new byte[expected.length / 3];
+                for (int k = 0; k < gray.length; k++) {
+                    gray[k] = expected[3 * k];
+                }
+                expected = gray;
+            } else {
+                assertThat(image.getColorspace()).isEqualTo(3);
+            }
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldKeepAlphaOfTranslucentBufferedImage() throws Exception {
+        BufferedImage bufferedImage = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        bufferedImage.setRGB(4, 4, 0x80ff0000);
+        Image image = Image.getInstance(bufferedImage, null);
+        assertThat(image.isDeflated()).isFalse();
+        assertThat(image.getImageMask()).isNotNull();
+    }
+
 }
@@ -12,6 +12,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.SecureRandom;
+import java.util.BitSet;
 import org.apache.commons.io.IOUtils;
 import org.bouncycastle.crypto.prng.FixedSecureRandom;
 import org.junit.jupiter.api.Test;
@@ -104,4 +105,52 @@ class FontSubsetTest {
         assertTrue(fontFound);
     }
 
+    @Test
+    void shouldReuseSubsetForSameGlyphs() throws Exception {
+        TrueTypeFont font = (TrueTypeFont) BaseFont.createFont("LiberationSerif-Regular.ttf", BaseFont.IDENTITY_H,
+                BaseFont.EMBEDDED, true, getLiberationFontByte(), null);
+        BitSet glyphs = new BitSet();
+        glyphs.set(36, 60);
+        byte[] subset = font.getSubset(glyphs, false, false);
+        assertThat(font.getSubset((BitSet) glyphs.clone(), false, false)).isSameAs(subset);
+
+        // a subset made from a freshly read font file is identical
+        byte[] fresh = new TrueTypeFontSubSet(font.fileName, new RandomAccessFileOrArray(font.rf), glyphs,
+                font.directoryOffset, null, false, false).process();
+        assertThat(subset).isEqualTo(fresh);
+
+        glyphs.set(70);
+        byte[] larger = font.getSubset(glyphs, false, false);
+        assertThat(larger).isNotSameAs(subset);
+        assertThat(larger.length).isGreaterThan(subset.length);
+        assertThat(font.getSubset(glyphs, true, false)).isNotSameAs(larger);
+    }
+
+    @Test
+    void shouldBoundSubsetsOfAllFonts() throws Exception {
+        TrueTypeFont font = (TrueTypeFont) BaseFont.createFont("LiberationSerif-Regular.ttf", BaseFont.IDENTITY_H,
+                BaseFont.EMBEDDED, true, getLiberationFontByte(), null);
+        BitSet glyphs = new BitSet();
+        glyphs.set(36, 60);
+        try {
+            BaseFont.setFontSubsetCacheSize(0);
+            assertThat(BaseFont.getFontSubsetCacheSize()).isZero();
+            byte[] subset = font.getSubset(glyphs, false, false);
+            assertThat(font.getSubset(glyphs, false, false)).isNotSameAs(subset).isEqualTo(subset);
+
+            // room for a few subsets, the least recently used one is dropped
+            BaseFont.setFontSubsetCacheSize(6L * subset.length);
+            subset = font.getSubset(glyphs, false, false);
+            assertThat(font.getSubset(glyphs, false, false)).isSameAs(subset);
+            for (int k = 0; k < 8; ++k) {
+                BitSet other = (BitSet) glyphs.clone();
+                other.set(100 + k);
+                font.getSubset(other, false, false);
+            }
+            assertThat(font.getSubset(glyphs, false, false)).isNotSameAs(subset);
+        } finally {
+            BaseFont.setFontSubsetCacheSize(TrueTypeFont.DEFAULT_SUBSET_CACHE_SIZE);
+        }
+    }
+
 }
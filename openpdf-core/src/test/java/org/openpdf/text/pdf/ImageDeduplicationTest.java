@@ -0,0 +1,103 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.openpdf.text.Document;
+import org.openpdf.text.Image;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+class ImageDeduplicationTest {
+
+    @Test
+    void shouldWriteSameImageContentOnce() throws Exception {
+        byte[] png = readResource("GitHub-Mark-32px.png");
+        byte[] pdf = createPdf(true, 5, () -> Image.getInstance(png));
+        // the image and its soft mask
+        assertThat(countImages(pdf)).isEqualTo(2);
+        PdfReader reader = new PdfReader(pdf);
+        for (int page = 1; page <= 5; ++page) {
+            PdfDictionary resources = reader.getPageN(page).getAsDict(PdfName.RESOURCES);
+            assertThat(resources.getAsDict(PdfName.XOBJECT).size()).isEqualTo(2);
+        }
+        reader.close();
+    }
+
+    @Test
+    void shouldWriteEveryImageWithoutDeduplication() throws Exception {
+        byte[] png = readResource("GitHub-Mark-32px.png");
+        assertThat(countImages(createPdf(false, 5, () -> Image.getInstance(png)))).isEqualTo(2 * 5);
+    }
+
+    @Test
+    void shouldWriteSameStreamedJpegFileOnce() throws Exception {
+        String jpeg = "src/test/resources/imageTest/ImageTest.jpg";
+        assertThat(countImages(createPdf(true, 3, () -> Image.getStreamedInstance(jpeg)))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepImagesWithDifferentContent() throws Exception {
+        int[] page = {0};
+        byte[] pdf = createPdf(true, 4, () -> {
+            BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(0, 0, page[0]++ % 2 == 0 ? Color.red.getRGB() : Color.blue.getRGB());
+            return Image.getInstance(image, null);
+        });
+        assertThat(countImages(pdf)).isEqualTo(2);
+    }
+
+    @Disabled("Benchmark of the size and the time to write a logo loaded for every page")
+    @Test
+    void benchmarkLogoOnEveryPage() throws Exception {
+        byte[] png = readResource("GitHub-Mark-32px.png");
+        for (boolean deduplicate : new boolean[]{false, true, false, true}) {
+            long start = System.nanoTime();
+            byte[] pdf = createPdf(deduplicate, 5000, () -> Image.getInstance(png));
+            System.out.printf("deduplicate=%s: %d bytes in %d ms%n", deduplicate, pdf.length,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private interface ImageSupplier {
+
+        Image get() throws Exception;
+    }
+
+    private static byte[] createPdf(boolean deduplicate, int pages, ImageSupplier images) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document document = new Document()) {
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
+            writer.setDeduplicateImages(deduplicate);
+            document.open();
+            for (int k = 0; k < pages; ++k) {
+                document.newPage();
+                document.add(images.get());
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static int countImages(byte[] pdf) throws IOException {
+        PdfReader reader = new PdfReader(pdf);
+        int images = 0;
+        for (int k = 1; k < reader.getXrefSize(); ++k) {
+            PdfObject obj = reader.getPdfObject(k);
+            if (obj != null && obj.isStream() && PdfName.IMAGE.equals(((PdfDictionary) obj).get(PdfName.SUBTYPE))) {
+                ++images;
+            }
+        }
+        reader.close();
+        return images;
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream is = ImageDeduplicationTest.class.getResourceAsStream("/" + name)) {
+            return is.readAllBytes();
+        }
+    }
+}
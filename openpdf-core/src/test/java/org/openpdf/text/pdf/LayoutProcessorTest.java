@@ -4,7 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.font.GlyphVector;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class LayoutProcessorTest {
 
@@ -17,4 +22,45 @@ class LayoutProcessorTest {
         assertThat(LayoutProcessor.getFlags()).isEqualTo(-1);
     }
 
+    @Test
+    void shouldShapeRepeatedTextOnce() throws Exception {
+        LayoutProcessor.enableKernLiga();
+        try {
+            BaseFont font = BaseFont.createFont("fonts/Viaoda_Libre/ViaodaLibre-Regular.ttf", BaseFont.IDENTITY_H,
+                    BaseFont.EMBEDDED);
+            LayoutProcessor.ShapedText shaped = LayoutProcessor.shapeText(font, 12, "Total office");
+            assertThat(LayoutProcessor.shapeText(font, 12, "Total office")).isSameAs(shaped);
+            assertThat(LayoutProcessor.shapeText(font, 14, "Total office")).isNotSameAs(shaped);
+
+            GlyphVector glyphVector = LayoutProcessor.computeGlyphVector(font, 12, "Total office");
+            int numGlyphs = glyphVector.getNumGlyphs();
+            assertThat(shaped.glyphCodes).containsExactly(glyphVector.getGlyphCodes(0, numGlyphs, null));
+            assertThat(shaped.getX(numGlyphs)).isEqualTo((float) glyphVector.getGlyphPosition(numGlyphs).getX());
+
+            LayoutProcessor.setShapingCacheSize(0);
+            assertThat(LayoutProcessor.shapeText(font, 12, "Total office")).isNotSameAs(shaped);
+        } finally {
+            LayoutProcessor.disable();
+            LayoutProcessor.setShapingCacheSize(2000);
+        }
+    }
+
+    @Test
+    void shouldNotShareShapesBetweenFontFilesWithTheSameName(@TempDir Path dir) throws Exception {
+        LayoutProcessor.enableKernLiga();
+        try {
+            String name = "fonts/Viaoda_Libre/ViaodaLibre-Regular.ttf";
+            Path copy = dir.resolve("ViaodaLibre-Regular.ttf");
+            try (InputStream is = BaseFont.getResourceStream(name)) {
+                Files.copy(is, copy);
+            }
+            BaseFont font = BaseFont.createFont(name, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            BaseFont sameName = BaseFont.createFont(copy.toString(), BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            LayoutProcessor.ShapedText shaped = LayoutProcessor.shapeText(font, 12, "Total office");
+            assertThat(LayoutProcessor.shapeText(sameName, 12, "Total office")).isNotSameAs(shaped);
+        } finally {
+            LayoutProcessor.disable();
+        }
+    }
+
 }
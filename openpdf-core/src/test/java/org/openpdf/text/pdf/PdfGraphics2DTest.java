@@ -0,0 +1,78 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.openpdf.text.Document;
+import org.openpdf.text.pdf.internal.PolylineShape;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.geom.Ellipse2D;
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class PdfGraphics2DTest {
+
+    private static final int[] X = {10, 40, 70, 100};
+    private static final int[] Y = {50, 20, 80, 30};
+
+    @Test
+    void shouldWriteRectangleWithOneOperator() {
+        String content = draw(g -> {
+            g.fillRect(10, 20, 30, 40);
+            g.drawRect(10, 20, 30, 40);
+        });
+        assertThat(content).contains("10 180 30 -40 re\nf\n", "10 180 30 -40 re\nS\n").doesNotContain("10 180 m");
+    }
+
+    @Test
+    void shouldWritePolylinesLikeTheirShapes() {
+        assertThat(draw(g -> g.drawPolyline(X, Y, 4)))
+                .isEqualTo(draw(g -> g.draw(new PolylineShape(X, Y, 4))));
+        assertThat(draw(g -> g.drawPolygon(X, Y, 4))).isEqualTo(draw(g -> g.draw(new Polygon(X, Y, 4))));
+        assertThat(draw(g -> g.fillPolygon(X, Y, 4))).isEqualTo(draw(g -> g.fill(new Polygon(X, Y, 4))));
+    }
+
+    @Test
+    void shouldNotRepeatStateInChildren() {
+        String content = draw(g -> {
+            g.setColor(Color.red);
+            g.setStroke(new BasicStroke(2));
+            g.drawLine(0, 0, 10, 10);
+            Graphics2D child = (Graphics2D) g.create();
+            child.setColor(Color.red);
+            child.setStroke(new BasicStroke(2));
+            child.drawLine(10, 10, 20, 20);
+            child.dispose();
+        });
+        assertThat(content.split(" w\n")).hasSize(3);
+        assertThat(content.split(" RG\n")).hasSize(2);
+    }
+
+    @Test
+    void shouldWriteRepeatedShapesOnce() {
+        String content = draw(g -> {
+            ((PdfGraphics2D) g).setShapeReuseEnabled(true);
+            for (int k = 0; k < 10; ++k) {
+                g.fill(new Ellipse2D.Double(10 * k, 10, 4, 4));
+            }
+            g.fill(new Ellipse2D.Double(10, 50, 8, 8));
+        });
+        assertThat(content.split(" c\n")).hasSize(2 * 4 + 1);
+        assertThat(content.split(" Do ")).hasSize(10 - 1 + 1);
+    }
+
+    private static String draw(Consumer<Graphics2D> painter) {
+        try (Document document = new Document()) {
+            PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+            document.open();
+            PdfContentByte cb = writer.getDirectContent();
+            Graphics2D g = cb.createGraphics(200, 200);
+            painter.accept(g);
+            g.dispose();
+            return cb.toString();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.openpdf.text.Document;
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.Image;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PdfImageTest {
+
+    private static final String JPEG = "src/test/resources/imageTest/ImageTest.jpg";
+    private static final byte[] PASSWORD = "password".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldStreamJpegFromFile() throws Exception {
+        Image image = Image.getStreamedInstance(JPEG);
+        assertThat(image.getRawData()).isNull();
+        byte[] jpeg = Files.readAllBytes(new File(JPEG).toPath());
+        assertThat(getImageData(createPdf(image, false), null)).isEqualTo(jpeg);
+    }
+
+    @Test
+    void shouldStreamEncryptedJpegFromFile() throws Exception {
+        byte[] pdf = createPdf(Image.getStreamedInstance(JPEG), true);
+        byte[] jpeg = Files.readAllBytes(new File(JPEG).toPath());
+        assertThat(getImageData(pdf, PASSWORD)).isEqualTo(jpeg);
+    }
+
+    @Test
+    void shouldWriteInlineJpegFromFile() throws Exception {
+        Image image = Image.getStreamedInstance(JPEG);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document document = new Document()) {
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
+            document.open();
+            writer.getDirectContent().addImage(image, 100, 0, 0, 100, 50, 50, true);
+        }
+        PdfReader reader = new PdfReader(baos.toByteArray());
+        String content = new String(reader.getPageContent(1), StandardCharsets.ISO_8859_1);
+        reader.close();
+        byte[] jpeg = Files.readAllBytes(new File(JPEG).toPath());
+        assertThat(content).contains(new String(jpeg, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void shouldKeepJpegDataOfDeletedFile(@TempDir Path dir) throws Exception {
+        byte[] jpeg = Files.readAllBytes(new File(JPEG).toPath());
+        Path file = dir.resolve("temp.jpg");
+        Files.write(file, jpeg);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document document = new Document()) {
+            PdfWriter.getInstance(document, baos);
+            document.open();
+            document.add(Image.getInstance(file.toString()));
+            Files.delete(file);
+        }
+        assertThat(getImageData(baos.toByteArray(), null)).isEqualTo(jpeg);
+    }
+
+    @Test
+    void shouldFailWhenStreamedFileIsDeleted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("temp.jpg");
+        Files.copy(new File(JPEG).toPath(), file);
+        Image image = Image.getStreamedInstance(file.toString());
+        Files.delete(file);
+        try (Document document = new Document()) {
+            PdfWriter.getInstance(document, new ByteArrayOutputStream());
+            document.open();
+            assertThatThrownBy(() -> document.add(image)).isInstanceOf(DocumentException.class);
+        }
+    }
+
+    private static byte[] createPdf(Image image, boolean encrypted) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Document document = new Document()) {
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
+            if (encrypted) {
+                writer.setEncryption(PASSWORD, PASSWORD, 0, PdfWriter.ENCRYPTION_AES_128);
+            }
+            document.open();
+            document.add(image);
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] getImageData(byte[] pdf, byte[] password) throws Exception {
+        PdfReader reader = new PdfReader(pdf, password);
+        try {
+            for (int k = 1; k < reader.getXrefSize(); ++k) {
+                PdfObject obj = reader.getPdfObject(k);
+                if (obj != null && obj.isStream() && PdfName.IMAGE.equals(((PdfDictionary) obj).get(PdfName.SUBTYPE))) {
+                    return PdfReader.getStreamBytesRaw((PRStream) obj);
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+}
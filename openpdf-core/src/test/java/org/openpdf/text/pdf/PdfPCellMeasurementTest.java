@@ -0,0 +1,116 @@
+package org.openpdf.text.pdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.Element;
+import org.openpdf.text.Phrase;
+
+class PdfPCellMeasurementTest {
+
+    private static final String TEXT = "The quick brown fox jumps over the lazy dog, again and again and again.";
+
+    @Test
+    void shouldMeasureAgainWhenContentChanges() {
+        PdfPCell cell = cellOfWidth(new PdfPCell(new Phrase(TEXT)), 100);
+        float height = cell.getMaxHeight();
+        assertThat(cell.getMaxHeight()).isEqualTo(height);
+
+        cell.setPhrase(new Phrase(TEXT + " " + TEXT));
+        assertThat(cell.getMaxHeight()).isGreaterThan(height);
+
+        cell.setPhrase(new Phrase(TEXT));
+        cell.setLeading(0, 2);
+        assertThat(cell.getMaxHeight()).isGreaterThan(height);
+    }
+
+    @Test
+    void shouldMeasureAgainWhenWidthOrPaddingChanges() {
+        PdfPCell cell = cellOfWidth(new PdfPCell(new Phrase(TEXT)), 100);
+        float height = cell.getMaxHeight();
+
+        cell.setRight(400);
+        float wide = cell.getMaxHeight();
+        assertThat(wide).isLessThan(height);
+
+        cell.setPaddingTop(20);
+        assertThat(cell.getMaxHeight()).isEqualTo(wide + 18);
+    }
+
+    @Test
+    void shouldWriteRecordedLinesLikeFreshLayout() throws DocumentException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, new ByteArrayOutputStream());
+        document.open();
+        ColumnText column = new ColumnText(null);
+        column.addText(new Phrase(TEXT));
+        column.setAlignment(Element.ALIGN_JUSTIFIED);
+
+        ColumnText simulated = ColumnText.duplicate(column);
+        simulated.setSimpleColumn(0, PdfPRow.BOTTOM_LIMIT, 100, 0);
+        simulated.setRecordLines(true);
+        simulated.go(true);
+        assertThat(simulated.getRecordedLines()).isNotNull();
+
+        // the recorded lines are written at another position
+        String replayed = write(writer, column, simulated.getRecordedLines(), 250);
+        String laidOut = write(writer, column, null, 250);
+        assertThat(replayed).isEqualTo(laidOut);
+
+        // a narrower column lays out the text again
+        String narrow = write(writer, column, simulated.getRecordedLines(), 80);
+        assertThat(narrow).isEqualTo(write(writer, column, null, 80));
+    }
+
+    @Test
+    void shouldKeepRecordedLinesOnlyUntilTheCellIsWritten() {
+        PdfPCell cell = cellOfWidth(new PdfPCell(new Phrase(TEXT)), 100);
+        float height = cell.getMaxHeight();
+        assertThat(cell.duplicateColumnForWriting().getLinesToReplay()).isNotNull();
+        assertThat(cell.duplicateColumnForWriting().getLinesToReplay()).isNull();
+        assertThat(cell.getMaxHeight()).isEqualTo(height);
+
+        cell.setPhrase(new Phrase(TEXT));
+        cell.getMaxHeight();
+        PdfPCell copy = new PdfPCell(cell);
+        assertThat(copy.duplicateColumnForWriting().getLinesToReplay()).isNull();
+        assertThat(copy.getMaxHeight()).isEqualTo(height);
+        assertThat(cell.duplicateColumnForWriting().getLinesToReplay()).isNotNull();
+    }
+
+    @Test
+    void shouldCalculateHeightsAgainOnlyWhenRowsChange() {
+        PdfPTable table = new PdfPTable(2);
+        table.setTotalWidth(200);
+        table.setLockedWidth(true);
+        table.addCell(TEXT);
+        table.addCell("short");
+        float height = table.calculateHeightsIfChanged();
+        assertThat(table.calculateHeightsIfChanged()).isEqualTo(height);
+
+        table.addCell(TEXT);
+        table.addCell("short");
+        assertThat(table.calculateHeightsIfChanged()).isEqualTo(2 * height);
+    }
+
+    private static PdfPCell cellOfWidth(PdfPCell cell, float width) {
+        cell.setLeft(0);
+        cell.setRight(width);
+        cell.setTop(0);
+        return cell;
+    }
+
+    private static String write(PdfWriter writer, ColumnText column, ColumnText.LineLayout lines, float width)
+            throws DocumentException {
+        PdfContentByte canvas = new PdfContentByte(writer);
+        ColumnText ct = ColumnText.duplicate(column);
+        ct.setCanvas(canvas);
+        ct.setSimpleColumn(300, 300, 300 + width, 700);
+        ct.setLinesToReplay(lines);
+        ct.go();
+        return canvas.toString();
+    }
+}
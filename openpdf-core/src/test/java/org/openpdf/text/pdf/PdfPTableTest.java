@@ -1,10 +1,18 @@
 package org.openpdf.text.pdf;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import org.openpdf.text.Chunk;
+import org.openpdf.text.Document;
 import org.openpdf.text.DocumentException;
+import org.openpdf.text.Element;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.SplitCharacter;
 import org.openpdf.text.error_messages.MessageLocalization;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class PdfPTableTest {
@@ -27,5 +35,81 @@ class PdfPTableTest {
         MessageLocalization.setLanguage("en", null);
     }
 
+    @Test
+    void parallelLayout_shouldCalculateSameRowHeights() {
+        PdfPTable sequential = ledger(1000, false);
+        PdfPTable parallel = ledger(1000, true);
+        assertThat(parallel.calculateHeights(true)).isEqualTo(sequential.calculateHeights(true));
+        for (int k = 0; k < sequential.size(); k++) {
+            assertThat(parallel.getRowHeight(k)).isEqualTo(sequential.getRowHeight(k));
+        }
+    }
+
+    @Test
+    void parallelLayout_shouldWriteSamePages() throws Exception {
+        byte[] sequential = write(ledger(600, false));
+        byte[] parallel = write(ledger(600, true));
+        PdfReader expected = new PdfReader(sequential);
+        PdfReader actual = new PdfReader(parallel);
+        assertThat(actual.getNumberOfPages()).isEqualTo(expected.getNumberOfPages()).isGreaterThan(1);
+        for (int page = 1; page <= expected.getNumberOfPages(); page++) {
+            assertThat(actual.getPageContent(page)).isEqualTo(expected.getPageContent(page));
+        }
+    }
+
+    @Test
+    void parallelLayout_shouldNotMeasureRowsWhileAdding() {
+        AtomicInteger measured = new AtomicInteger();
+        PdfPTable parallel = countingLedger(200, true, measured);
+        assertThat(measured).hasValue(0);
+        float height = parallel.getTotalHeight();
+        assertThat(measured.get()).isPositive();
 
-}
\ No newline at end of file
+        PdfPTable sequential = countingLedger(200, false, new AtomicInteger());
+        assertThat(height).isEqualTo(sequential.getTotalHeight());
+    }
+
+    private static PdfPTable countingLedger(int rows, boolean parallelLayout, AtomicInteger measured) {
+        // line breaking asks the split character, so every call means a cell was laid out
+        SplitCharacter counting = (start, current, end, cc, ck) -> {
+            measured.incrementAndGet();
+            return DefaultSplitCharacter.DEFAULT.isSplitCharacter(start, current, end, cc, ck);
+        };
+        PdfPTable table = new PdfPTable(new float[]{1, 3});
+        table.setTotalWidth(300);
+        table.setLockedWidth(true);
+        table.setParallelLayout(parallelLayout);
+        for (int k = 0; k < rows; k++) {
+            table.addCell(String.valueOf(k));
+            Chunk chunk = new Chunk("Entry " + k + " lorem ipsum dolor sit amet".repeat(k % 4 + 1));
+            chunk.setSplitCharacter(counting);
+            table.addCell(new PdfPCell(new Phrase(chunk)));
+        }
+        return table;
+    }
+
+    private static PdfPTable ledger(int rows, boolean parallelLayout) {
+        PdfPTable table = new PdfPTable(new float[]{1, 3, 1});
+        table.setTotalWidth(400);
+        table.setLockedWidth(true);
+        table.setParallelLayout(parallelLayout);
+        for (int k = 0; k < rows; k++) {
+            table.addCell(String.valueOf(k));
+            PdfPCell text = new PdfPCell(new Phrase("Entry " + k + " ".repeat(k % 7) + "lorem ipsum dolor".repeat(k % 5)));
+            text.setHorizontalAlignment(Element.ALIGN_JUSTIFIED);
+            table.addCell(text);
+            table.addCell(k % 3 == 0 ? new PdfPCell(new PdfPTable(1)) : new PdfPCell(new Phrase(k * 3 + ".00")));
+        }
+        return table;
+    }
+
+    private static byte[] write(PdfPTable table) throws DocumentException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(table);
+        document.close();
+        return out.toByteArray();
+    }
+}
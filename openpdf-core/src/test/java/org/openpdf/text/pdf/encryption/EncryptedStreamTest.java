@@ -0,0 +1,78 @@
+package org.openpdf.text.pdf.encryption;
+
+import org.openpdf.text.Document;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.PRStream;
+import org.openpdf.text.pdf.PdfObject;
+import org.openpdf.text.pdf.PdfReader;
+import org.openpdf.text.pdf.PdfStamper;
+import org.openpdf.text.pdf.PdfWriter;
+import org.openpdf.text.pdf.RandomAccessFileOrArray;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class EncryptedStreamTest {
+
+    private static final byte[] USER = "user".getBytes();
+    private static final byte[] OWNER = "owner".getBytes();
+
+    @ParameterizedTest
+    @ValueSource(ints = {PdfWriter.STANDARD_ENCRYPTION_128, PdfWriter.ENCRYPTION_AES_128,
+            PdfWriter.ENCRYPTION_AES_256_V3})
+    void shouldReadStreamsAsTheyAreConsumed(int encryption) throws IOException {
+        PdfReader reader = new PdfReader(createPdf(encryption), OWNER);
+        int streams = 0;
+        RandomAccessFileOrArray file = reader.getSafeFile();
+        file.reOpen();
+        for (int k = 1; k < reader.getXrefSize(); ++k) {
+            PdfObject obj = reader.getPdfObject(k);
+            if (obj != null && obj.isStream()) {
+                PRStream stream = (PRStream) obj;
+                try (InputStream in = PdfReader.getStreamInputStream(stream)) {
+                    Assertions.assertArrayEquals(PdfReader.getStreamBytes(stream), in.readAllBytes());
+                }
+                InputStream raw = PdfReader.getStreamRawInputStream(stream, file);
+                Assertions.assertArrayEquals(PdfReader.getStreamBytesRaw(stream), raw.readAllBytes());
+                ++streams;
+            }
+        }
+        file.close();
+        Assertions.assertTrue(streams > 0);
+        reader.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {PdfWriter.STANDARD_ENCRYPTION_128, PdfWriter.ENCRYPTION_AES_128,
+            PdfWriter.ENCRYPTION_AES_256_V3})
+    void shouldCopyStreamsThroughTheEncryption(int encryption) throws Exception {
+        byte[] pdf = createPdf(encryption);
+        PdfReader reader = new PdfReader(pdf, OWNER);
+        byte[] content = reader.getPageContent(1);
+        ByteArrayOutputStream stamped = new ByteArrayOutputStream();
+        PdfStamper stamper = new PdfStamper(reader, stamped);
+        stamper.setEncryption(USER, OWNER, 0, encryption);
+        stamper.close();
+
+        PdfReader result = new PdfReader(stamped.toByteArray(), USER);
+        Assertions.assertTrue(result.isEncrypted());
+        Assertions.assertArrayEquals(content, result.getPageContent(1));
+        result.close();
+    }
+
+    private static byte[] createPdf(int encryption) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        writer.setEncryption(USER, OWNER, 0, encryption);
+        document.open();
+        for (int k = 0; k < 40; ++k) {
+            document.add(new Paragraph("Line " + k + " of the encrypted and compressed page content"));
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+}
@@ -2,6 +2,18 @@ package org.openpdf.text.pdf.encryption;
 
 import org.openpdf.text.pdf.PdfEncryption;
 import org.openpdf.text.pdf.PdfWriter;
+import org.openpdf.text.pdf.StandardDecryption;
+import org.openpdf.text.pdf.crypto.AESCipher;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -24,4 +36,102 @@ public class StandardDecryptionTest {
         Assertions.assertEquals(result.length, 0);
     }
 
+    @Test
+    public void testAESEncryptionMatchesBouncyCastle() throws Exception {
+        byte[] key = new byte[16];
+        byte[] iv = new byte[16];
+        Random random = new Random(42);
+        random.nextBytes(key);
+        random.nextBytes(iv);
+        for (int len : new int[]{0, 1, 15, 16, 17, 1000}) {
+            byte[] data = new byte[len];
+            random.nextBytes(data);
+
+            PaddedBufferedBlockCipher bc = new PaddedBufferedBlockCipher(CBCBlockCipher.newInstance(new AESEngine()));
+            bc.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+            byte[] expected = new byte[bc.getOutputSize(len)];
+            int n = bc.processBytes(data, 0, len, expected, 0);
+            bc.doFinal(expected, n);
+
+            AESCipher cipher = new AESCipher(true, key, iv);
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            for (int off = 0; off < len; off += 7) {
+                byte[] part = cipher.update(data, off, Math.min(7, len - off));
+                if (part != null) {
+                    actual.write(part);
+                }
+            }
+            actual.write(cipher.doFinal());
+            Assertions.assertArrayEquals(expected, actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void testAESRoundTripInParts() {
+        PdfEncryption encryption = new PdfEncryption();
+        encryption.setCryptoMode(PdfWriter.ENCRYPTION_AES_128, 0);
+        encryption.setupByEncryptionKey(new byte[16], 128);
+        encryption.setHashKey(3, 0);
+        byte[] data = new byte[5000];
+        new Random(7).nextBytes(data);
+        for (int len : new int[]{0, 5, 16, 31, 32, 5000}) {
+            byte[] plain = Arrays.copyOf(data, len);
+            byte[] encrypted = encryption.encryptByteArray(plain);
+            Assertions.assertEquals(encryption.calculateStreamSize(len), encrypted.length);
+            Assertions.assertArrayEquals(plain, encryption.decryptByteArray(encrypted));
+
+            StandardDecryption decryption = encryption.getDecryptor();
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            for (int off = 0; off < encrypted.length; off += 13) {
+                byte[] part = decryption.update(encrypted, off, Math.min(13, encrypted.length - off));
+                if (part != null) {
+                    decrypted.write(part, 0, part.length);
+                }
+            }
+            byte[] end = decryption.finish();
+            decrypted.write(end, 0, end.length);
+            Assertions.assertArrayEquals(plain, decrypted.toByteArray());
+        }
+    }
+
+    @Test
+    public void testDecryptionStream() throws Exception {
+        byte[] data = new byte[20000];
+        new Random(11).nextBytes(data);
+        for (int mode : new int[]{PdfWriter.STANDARD_ENCRYPTION_128, PdfWriter.ENCRYPTION_AES_128}) {
+            PdfEncryption encryption = new PdfEncryption();
+            encryption.setCryptoMode(mode, 128);
+            encryption.setupByEncryptionKey(new byte[16], 128);
+            encryption.setHashKey(5, 0);
+            for (int len : new int[]{0, 1, 16, 4095, 4096, 20000}) {
+                byte[] plain = Arrays.copyOf(data, len);
+                InputStream in = encryption.getDecryptionStream(
+                        new ByteArrayInputStream(encryption.encryptByteArray(plain)));
+                ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+                byte[] buf = new byte[777];
+                int n;
+                while ((n = in.read(buf)) >= 0) {
+                    decrypted.write(buf, 0, n);
+                }
+                Assertions.assertEquals(-1, in.read());
+                Assertions.assertArrayEquals(plain, decrypted.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void testAESDecryptionKeepsInvalidPadding() {
+        byte[] key = new byte[16];
+        byte[] iv = new byte[16];
+        byte[] block = new byte[16];
+        Arrays.fill(block, (byte) 'x');
+        AESCipher encrypt = new AESCipher(true, key, iv);
+        byte[] encrypted = encrypt.update(block, 0, 16);
+
+        // the block without the padding block that should follow it
+        AESCipher decrypt = new AESCipher(false, key, iv);
+        Assertions.assertNull(decrypt.update(encrypted, 0, 16));
+        Assertions.assertArrayEquals(block, decrypt.doFinal());
+    }
+
 }
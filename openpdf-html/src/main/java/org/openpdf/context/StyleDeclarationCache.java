@@ -0,0 +1,29 @@
+package org.openpdf.context;
+
+import org.openpdf.css.sheet.Ruleset;
+import org.openpdf.css.sheet.StylesheetInfo.Origin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of parsed {@code style} attribute declarations, keyed by origin and
+ * declaration text. Documents often repeat the same inline style on thousands of
+ * elements (e.g. table cells); these are parsed once and share one {@link Ruleset}.
+ */
+class StyleDeclarationCache extends LinkedHashMap<StyleDeclarationCache.Key, Ruleset> {
+    private final int cacheCapacity;
+
+    StyleDeclarationCache(int cacheCapacity) {
+        super(16, 0.75f, true);
+        this.cacheCapacity = cacheCapacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Ruleset> eldest) {
+        return size() > cacheCapacity;
+    }
+
+    record Key(Origin origin, String declaration) {
+    }
+}
@@ -61,6 +61,12 @@ public class StylesheetFactoryImpl implements StylesheetFactory {
      * an LRU cache
      */
     private final Map<String, Stylesheet> _cache = synchronizedMap(new StylesheetCache());
+
+    /**
+     * parsed style attributes; rulesets are never modified once parsed, so they can be shared
+     */
+    private final Map<StyleDeclarationCache.Key, Ruleset> _declarationCache = synchronizedMap(
+            new StyleDeclarationCache(Configuration.valueAsInt("xr.css.declaration-cache-capacity", 1024)));
     private final CSSParser _cssParser;
 
     public StylesheetFactoryImpl(UserAgentCallback userAgentCallback) {
@@ -107,7 +113,13 @@ public class StylesheetFactoryImpl implements StylesheetFactory {
 
     @Override
     public Ruleset parseStyleDeclaration(Origin origin, String styleDeclaration) {
-        return _cssParser.parseDeclaration(origin, styleDeclaration);
+        StyleDeclarationCache.Key key = new StyleDeclarationCache.Key(origin, styleDeclaration);
+        Ruleset result = _declarationCache.get(key);
+        if (result == null) {
+            result = _cssParser.parseDeclaration(origin, styleDeclaration);
+            _declarationCache.put(key, result);
+        }
+        return result;
     }
 
     /**
@@ -481,6 +481,12 @@ public class TableRowBox extends BlockBox {
         return true;
     }
 
+    @Override
+    protected boolean isMayCollapseMarginsWithSiblings() {
+        // the siblings are rows as well, looking for one that collapses would only walk to the end of the section
+        return false;
+    }
+
     @Override
     public void paintBorder(RenderingContext c) {
         // rows never have borders
@@ -192,11 +192,13 @@ public class TableSectionBox extends BlockBox {
 
     void setCellWidths(LayoutContext c)
     {
-        int[] columnPos = getTable().getColumnPos();
+        TableBox table = getTable();
+        int[] columnPos = table.getColumnPos();
+        // the spacing is a property of the table, no need to resolve it per row
+        int hspacing = table.getStyle().getBorderHSpacing(c);
 
         for (RowData row : _grid) {
             List<TableCellBox> cols = row.getRow();
-            int hspacing = getTable().getStyle().getBorderHSpacing(c);
             for (int j = 0; j < cols.size(); j++) {
                 TableCellBox cell = cols.get(j);
 
@@ -207,7 +209,7 @@ public class TableSectionBox extends BlockBox {
                 int endCol = j;
                 int cspan = cell.getStyle().getColSpan();
                 while (cspan > 0 && endCol < cols.size()) {
-                    cspan -= getTable().spanOfEffCol(endCol);
+                    cspan -= table.spanOfEffCol(endCol);
                     endCol++;
                 }
 
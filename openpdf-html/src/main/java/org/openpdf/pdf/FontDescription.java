@@ -3,13 +3,23 @@ package org.openpdf.pdf;
 import org.openpdf.text.pdf.BaseFont;
 import org.openpdf.css.constants.IdentValue;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 public class FontDescription {
     private static final int DEFAULT_FONT_WEIGHT = 400;
+    private static final int COVERAGE_BLOCK_SIZE = 256;
+    private static final int COVERAGE_BLOCKS = (Character.MAX_VALUE + 1) / COVERAGE_BLOCK_SIZE;
     private final IdentValue _style;
     private final BaseFont _font;
     private final Decorations _decorations;
     private final boolean _isFromFontFace;
 
+    /**
+     * Glyph coverage of the font, one bitset of 256 characters per block of the
+     * Basic Multilingual Plane. Blocks are computed on first use.
+     */
+    private final AtomicReferenceArray<long[]> _coverage = new AtomicReferenceArray<>(COVERAGE_BLOCKS);
+
     public FontDescription(BaseFont font) {
         this(font, false);
     }
@@ -37,6 +47,32 @@ public class FontDescription {
         return _font;
     }
 
+    /**
+     * Same as {@code getFont().charExists(c)}, but answered from a cached bitset
+     * once the block containing {@code c} has been looked up.
+     */
+    public boolean charExists(char c) {
+        int block = c / COVERAGE_BLOCK_SIZE;
+        long[] bits = _coverage.get(block);
+        if (bits == null) {
+            bits = computeCoverage(block);
+            _coverage.compareAndSet(block, null, bits);
+        }
+        int offset = c % COVERAGE_BLOCK_SIZE;
+        return (bits[offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    private long[] computeCoverage(int block) {
+        long[] bits = new long[COVERAGE_BLOCK_SIZE / Long.SIZE];
+        int first = block * COVERAGE_BLOCK_SIZE;
+        for (int offset = 0; offset < COVERAGE_BLOCK_SIZE; offset++) {
+            if (_font.charExists(first + offset)) {
+                bits[offset >>> 6] |= 1L << offset;
+            }
+        }
+        return bits;
+    }
+
     public int getWeight() {
         return _decorations.weight();
     }
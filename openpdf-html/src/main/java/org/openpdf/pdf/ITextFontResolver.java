@@ -78,7 +78,8 @@ public class ITextFontResolver implements FontResolver {
 
     private final Map<String, String> _embedFontFaces = new HashMap<>();
     private final Map<String, FontFamily> _fontFamilies = new HashMap<>();
-    private final Map<String, FontDescription> _fontCache = new ConcurrentHashMap<>();
+    private final Map<FontKey, FontDescription> _fontCache = new ConcurrentHashMap<>();
+    private final Map<FontKey, FontDescription> _resolvedFontCache = new ConcurrentHashMap<>();
 
     public Map<String, FontFamily> getFonts() {
         if (_fontFamilies.isEmpty()) {
@@ -125,11 +126,11 @@ public class ITextFontResolver implements FontResolver {
         synchronized (_fontFamilies) {
             _fontFamilies.clear();
         }
-        _fontCache.clear();
+        clearFontCaches();
     }
 
     public void flushFontFaceFonts() {
-        _fontCache.clear();
+        clearFontCaches();
 
         for (Iterator<FontFamily> i = getFonts().values().iterator(); i.hasNext(); ) {
             FontFamily family = i.next();
@@ -442,7 +443,14 @@ public class ITextFontResolver implements FontResolver {
         return IOUtil.readBytes(Paths.get(path));
     }
 
+    private void clearFontCaches() {
+        _fontCache.clear();
+        _resolvedFontCache.clear();
+    }
+
     private FontFamily getFontFamily(String fontFamilyName) {
+        // a new font description may change the outcome of earlier lookups
+        clearFontCaches();
         FontFamily fontFamily = getFonts().get(fontFamilyName);
         if (fontFamily == null) {
             fontFamily = new FontFamily(fontFamilyName);
@@ -457,18 +465,31 @@ public class ITextFontResolver implements FontResolver {
                 || style == IdentValue.ITALIC)) {
             style = IdentValue.NORMAL;
         }
+
+        FontKey key = new FontKey(families == null ? List.of() : List.of(families), weight, style);
+        FontDescription resolved = _resolvedFontCache.get(key);
+        if (resolved != null) {
+            return new ITextFSFont(resolved, size);
+        }
+
         if (families != null) {
             for (String family : families) {
-                FSFont font = resolveFont(family, size, weight, style);
-                if (font != null) {
-                    log.debug("Resolved font {}:{}:{} -> {}", family, weight, style, font);
-                    return font;
+                FontDescription description = resolveFontDescription(family, weight, style);
+                if (description != null) {
+                    log.debug("Resolved font {}:{}:{} -> {}", family, weight, style, description);
+                    _resolvedFontCache.put(key, description);
+                    return new ITextFSFont(description, size);
                 }
             }
         }
 
         log.debug("Could not resolve font {}:{}:{} - fallback to Serif", Arrays.toString(families), weight, style);
-        return resolveFont("Serif", size, weight, style);
+        FontDescription fallback = resolveFontDescription("Serif", weight, style);
+        if (fallback == null) {
+            return null;
+        }
+        _resolvedFontCache.put(key, fallback);
+        return new ITextFSFont(fallback, size);
     }
 
     String normalizeFontFamily(String fontFamily) {
@@ -502,15 +523,14 @@ public class ITextFontResolver implements FontResolver {
     }
 
     @Nullable
-    private FSFont resolveFont(String fontFamily, float size, IdentValue weight, IdentValue style) {
+    private FontDescription resolveFontDescription(String fontFamily, IdentValue weight, IdentValue style) {
         String normalizedFontFamily = normalizeFontFamily(fontFamily);
 
-        String cacheKey = String.format("%s-%s-%s", normalizedFontFamily, weight, style);
+        FontKey cacheKey = new FontKey(List.of(normalizedFontFamily), weight, style);
         FontDescription result = _fontCache.get(cacheKey);
 
         if (result != null) {
-            log.debug("Resolved font {}:{}:{} -> {}", fontFamily, weight, style, result);
-            return new ITextFSFont(result, size);
+            return result;
         }
 
         FontFamily family = getFonts().get(normalizedFontFamily);
@@ -518,7 +538,7 @@ public class ITextFontResolver implements FontResolver {
             result = family.match(convertWeightToInt(weight), style);
             if (result != null) {
                 _fontCache.put(cacheKey, result);
-                return new ITextFSFont(result, size);
+                return result;
             }
         }
 
@@ -643,4 +663,6 @@ public class ITextFontResolver implements FontResolver {
         result.put("ZapfDingbats", fontFamily);
     }
 
+    private record FontKey(List<String> families, IdentValue weight, IdentValue style) {
+    }
 }
@@ -575,7 +575,8 @@ public class ITextOutputDevice extends AbstractOutputDevice implements OutputDev
 
         // first check to see if the replacement character even exists in the
         // given font. If not, then do nothing.
-        if (!_font.getFontDescription().getFont().charExists(replacementCharacter)) {
+        FontDescription description = _font.getFontDescription();
+        if (!description.charExists(replacementCharacter)) {
             XRLog.render(Level.INFO, "Missing replacement character [" + replacementCharacter + ":" + (int) replacementCharacter
                     + "]. No replacement will occur.");
             return string;
@@ -584,8 +585,7 @@ public class ITextOutputDevice extends AbstractOutputDevice implements OutputDev
         // iterate through each character in the string and make an appropriate
         // replacement
         for (int i = 0; i < charArr.length; i++) {
-            if (!(charArr[i] == ' ' || charArr[i] == '\u00a0' || charArr[i] == '\u3000' || _font.getFontDescription().getFont()
-                    .charExists(charArr[i]))) {
+            if (!(charArr[i] == ' ' || charArr[i] == '\u00a0' || charArr[i] == '\u3000' || description.charExists(charArr[i]))) {
                 XRLog.render(Level.INFO, "Missing character [" + charArr[i] + ":" + (int) charArr[i] + "] in string [" + string
                         + "]. Replacing with '" + replacementCharacter + "'");
                 charArr[i] = replacementCharacter;
@@ -934,7 +934,8 @@ public class ITextOutputDevice extends AbstractOutputDevice implements OutputDev
     public PdfReader getReader(URI uri) throws IOException {
         PdfReader result = _readerCache.get(uri);
         if (result == null) {
-            result = new PdfReader(getSharedContext().getUserAgentCallback().getBinaryResource(uri.toString()));
+            result = PdfReaderCache.shared().getReader(uri.toString(),
+                    () -> new PdfReader(getSharedContext().getUserAgentCallback().getBinaryResource(uri.toString())));
             _readerCache.put(uri, result);
         }
         return result;
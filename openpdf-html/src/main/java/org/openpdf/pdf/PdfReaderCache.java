@@ -0,0 +1,96 @@
+package org.openpdf.pdf;
+
+import org.openpdf.text.pdf.PdfReader;
+import org.openpdf.util.Configuration;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe cache of parsed PDF documents that are embedded as images
+ * (see {@link PDFAsImage}), shared by all renderers of the process.
+ * <p>
+ * {@link PdfReader} is not thread-safe, so the cache keeps one fully parsed master copy
+ * per URI and hands out independent duplicates. Duplicating a reader copies the parsed
+ * object tree but does not tokenize or parse the source again.
+ * <p>
+ * Imported pages ({@code PdfImportedPage}) belong to the {@code PdfWriter} they were
+ * created for and therefore cannot be shared across renders.
+ * <p>
+ * The shared instance is disabled by default, because a cached document is not reloaded
+ * when the resource behind its URI changes. Set {@code xr.pdf.reader-cache-capacity}
+ * to the number of documents to keep to enable it.
+ */
+public class PdfReaderCache {
+    private static final PdfReaderCache SHARED =
+            new PdfReaderCache(Configuration.valueAsInt("xr.pdf.reader-cache-capacity", 0));
+
+    private final int _capacity;
+    private final Map<String, PdfReader> _readers;
+
+    public PdfReaderCache(int capacity) {
+        _capacity = capacity;
+        _readers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PdfReader> eldest) {
+                return size() > _capacity;
+            }
+        };
+    }
+
+    public static PdfReaderCache shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return _capacity > 0;
+    }
+
+    /**
+     * Returns a reader for the given document, parsing it with {@code loader} only if
+     * it is not cached yet. The returned reader is never shared with other callers.
+     */
+    public PdfReader getReader(String uri, ReaderLoader loader) throws IOException {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+
+        PdfReader master;
+        synchronized (_readers) {
+            master = _readers.get(uri);
+        }
+
+        if (master == null) {
+            // parse outside the lock, a concurrent load of the same URI only wastes some work
+            master = loader.load();
+            synchronized (_readers) {
+                PdfReader existing = _readers.putIfAbsent(uri, master);
+                if (existing != null) {
+                    master = existing;
+                }
+            }
+        }
+
+        synchronized (master) {
+            return new PdfReader(master);
+        }
+    }
+
+    public int size() {
+        synchronized (_readers) {
+            return _readers.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (_readers) {
+            _readers.clear();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ReaderLoader {
+        PdfReader load() throws IOException;
+    }
+}
@@ -1117,6 +1117,10 @@ public class BlockBox extends Box implements InlinePaintable {
         return !isRoot() && getStyle().isMayCollapseMarginsWithChildren();
     }
 
+    protected boolean isMayCollapseMarginsWithSiblings() {
+        return true;
+    }
+
     // This will require a rethink if we ever truly layout incrementally
     // Should only ever collapse top margin and pick up collapsable
     // bottom margins by looking back up the tree.
@@ -1155,7 +1159,7 @@ public class BlockBox extends Box implements InlinePaintable {
 
     private void setCollapsedBottomMargin(LayoutContext c, RectPropertySet margin, MarginCollapseResult collapsedMargin) {
         BlockBox next = null;
-        if (! isInline()) {
+        if (! isInline() && isMayCollapseMarginsWithSiblings()) {
             next = getNextCollapsableSibling(collapsedMargin);
         }
         if (! (next == null || next instanceof AnonymousBlockBox) &&
@@ -0,0 +1,35 @@
+package org.openpdf.context;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.css.sheet.Ruleset;
+import org.openpdf.swing.NaiveUserAgent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openpdf.css.sheet.StylesheetInfo.Origin.AUTHOR;
+import static org.openpdf.css.sheet.StylesheetInfo.Origin.USER;
+
+class StyleDeclarationCacheTest {
+    @Test
+    void holdsNoMoreThanCapacityEntries() {
+        StyleDeclarationCache cache = new StyleDeclarationCache(2);
+        cache.put(new StyleDeclarationCache.Key(AUTHOR, "color: red"), new Ruleset(AUTHOR));
+        cache.put(new StyleDeclarationCache.Key(AUTHOR, "color: blue"), new Ruleset(AUTHOR));
+        cache.put(new StyleDeclarationCache.Key(AUTHOR, "color: green"), new Ruleset(AUTHOR));
+
+        assertThat(cache).hasSize(2);
+        assertThat(cache).doesNotContainKey(new StyleDeclarationCache.Key(AUTHOR, "color: red"));
+    }
+
+    @Test
+    void parsesRepeatedStyleAttributeOnce() {
+        StylesheetFactoryImpl factory = new StylesheetFactoryImpl(new NaiveUserAgent());
+
+        Ruleset first = factory.parseStyleDeclaration(AUTHOR, "color: red; width: 10px");
+        Ruleset second = factory.parseStyleDeclaration(AUTHOR, "color: red; width: 10px");
+        Ruleset otherOrigin = factory.parseStyleDeclaration(USER, "color: red; width: 10px");
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherOrigin).isNotSameAs(first);
+        assertThat(first.getPropertyDeclarations()).hasSize(2);
+    }
+}
@@ -1,6 +1,9 @@
 package org.openpdf.pdf;
 
 import org.junit.jupiter.api.Test;
+import org.openpdf.css.constants.IdentValue;
+import org.openpdf.css.value.FontSpecification;
+import org.openpdf.text.pdf.BaseFont;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,4 +41,31 @@ class ITextFontResolverTest {
         assertThat(resolver.normalizeFontFamily("MONOSPACE")).isEqualTo("Monospaced");
         assertThat(resolver.normalizeFontFamily("\"monospace\"")).isEqualTo("Monospaced");
     }
-}
\ No newline at end of file
+
+    @Test
+    void resolveFont_reusesFontDescriptionForSameSpecification() {
+        FontSpecification spec = new FontSpecification();
+        spec.families = new String[]{"no-such-font", "sans-serif"};
+        spec.fontWeight = IdentValue.BOLD;
+        spec.fontStyle = IdentValue.NORMAL;
+        spec.size = 12;
+
+        ITextFSFont first = (ITextFSFont) resolver.resolveFont(null, spec);
+        spec.size = 20;
+        ITextFSFont second = (ITextFSFont) resolver.resolveFont(null, spec);
+
+        assertThat(second.getFontDescription()).isSameAs(first.getFontDescription());
+        assertThat(second.getSize2D()).isEqualTo(20);
+        assertThat(first.getFontDescription().getFont().getPostscriptFontName()).isEqualTo(BaseFont.HELVETICA_BOLD);
+    }
+
+    @Test
+    void charExists_matchesBaseFont() {
+        FontDescription description = resolver.getFonts().get("Serif").match(400, IdentValue.NORMAL);
+        BaseFont font = description.getFont();
+
+        for (char c : new char[]{'a', 'Z', ' ', '\u00e9', '\u20ac', '\u4e2d', '\u0627'}) {
+            assertThat(description.charExists(c)).as("char %s", (int) c).isEqualTo(font.charExists(c));
+        }
+    }
+}
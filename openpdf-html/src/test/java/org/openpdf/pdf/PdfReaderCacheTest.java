@@ -0,0 +1,87 @@
+package org.openpdf.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.text.Document;
+import org.openpdf.text.PageSize;
+import org.openpdf.text.Paragraph;
+import org.openpdf.text.pdf.PdfReader;
+import org.openpdf.text.pdf.PdfWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfReaderCacheTest {
+    private static byte[] createPdf() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(new Paragraph("Letterhead"));
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    void parsesEachDocumentOnlyOnce() throws Exception {
+        byte[] pdf = createPdf();
+        AtomicInteger loads = new AtomicInteger();
+        PdfReaderCache cache = new PdfReaderCache(2);
+
+        PdfReader first = cache.getReader("letterhead.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+        PdfReader second = cache.getReader("letterhead.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPageSize(1).getWidth()).isEqualTo(PageSize.A5.getWidth());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedDocument() throws Exception {
+        byte[] pdf = createPdf();
+        PdfReaderCache cache = new PdfReaderCache(2);
+
+        cache.getReader("a.pdf", () -> new PdfReader(pdf));
+        cache.getReader("b.pdf", () -> new PdfReader(pdf));
+        cache.getReader("a.pdf", () -> new PdfReader(pdf));
+        cache.getReader("c.pdf", () -> new PdfReader(pdf));
+
+        assertThat(cache.size()).isEqualTo(2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getReader("a.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+        cache.getReader("b.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() throws Exception {
+        byte[] pdf = createPdf();
+        AtomicInteger loads = new AtomicInteger();
+        PdfReaderCache cache = new PdfReaderCache(0);
+
+        cache.getReader("a.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+        cache.getReader("a.pdf", () -> {
+            loads.incrementAndGet();
+            return new PdfReader(pdf);
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -82,67 +82,78 @@ public abstract class BaseWatchable implements Watchable, Runnable {
 	public void run() {
         try {
             Thread.sleep(1);
-            // call setup once we started
-            if (getStatus() == Watchable.NOT_STARTED) {
-                setup();
-            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            PDFDebugger.debug("Thread interrupted while waiting for status change.");
+            this.thread = null;
+            return;
+        }
+        runToCompletion();
+        // notify that we are no longer running
+        this.thread = null;
+    }
 
-            setStatus(Watchable.PAUSED);
-
-            synchronized (this.parserLock) {
-                while (!isFinished() && getStatus() != Watchable.STOPPED) {
-                    if (isExecutable()) {
-                        // set the status to running
-                        setStatus(Watchable.RUNNING);
-
-                        try {
-                            // keep going until the status is no longer running,
-                            // our gate tells us to stop, or no-one is watching
-                            int laststatus = Watchable.RUNNING;
-                            while ((getStatus() == Watchable.RUNNING) && (this.gate == null || !this.gate.iterate())) {
-                                // update the status based on this iteration
-                                int status = iterate();
-                                if (status != laststatus) {
-                                    // update status only when necessary, this increases performance
-                                    setStatus(status);
-                                    laststatus = status;
-                                }
+    /**
+     * Iterate until finished, stopped or suspended by the gate.  This is
+     * the body of {@link #run()} without the start-up delay, so synchronous
+     * callers run it directly in their own thread.
+     */
+    private void runToCompletion() {
+        // call setup once we started
+        if (getStatus() == Watchable.NOT_STARTED) {
+            setup();
+        }
 
-                            }
+        setStatus(Watchable.PAUSED);
 
-                            // make sure we are paused
-                            if (getStatus() == Watchable.RUNNING) {
-                                setStatus(Watchable.PAUSED);
+        synchronized (this.parserLock) {
+            while (!isFinished() && getStatus() != Watchable.STOPPED) {
+                if (isExecutable()) {
+                    // set the status to running
+                    setStatus(Watchable.RUNNING);
+
+                    try {
+                        // keep going until the status is no longer running,
+                        // our gate tells us to stop, or no-one is watching
+                        int laststatus = Watchable.RUNNING;
+                        while ((getStatus() == Watchable.RUNNING) && (this.gate == null || !this.gate.iterate())) {
+                            // update the status based on this iteration
+                            int status = iterate();
+                            if (status != laststatus) {
+                                // update status only when necessary, this increases performance
+                                setStatus(status);
+                                laststatus = status;
                             }
-                        } catch (Exception ex) {
-                            setError(ex);
+
                         }
-                    } else {
-                        // wait for our status to change
-                        synchronized (this.statusLock) {
-                            if (!isExecutable()) {
-                                try {
-                                    this.statusLock.wait(5000);
-                                } catch (InterruptedException ex) {
-                                    Thread.currentThread().interrupt(); // ← Preserve the interrupt status
-                                }
 
+                        // make sure we are paused
+                        if (getStatus() == Watchable.RUNNING) {
+                            setStatus(Watchable.PAUSED);
+                        }
+                    } catch (Exception ex) {
+                        setError(ex);
+                    }
+                } else {
+                    // wait for our status to change
+                    synchronized (this.statusLock) {
+                        if (!isExecutable()) {
+                            try {
+                                this.statusLock.wait(5000);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt(); // ← Preserve the interrupt status
                             }
+
                         }
                     }
                 }
             }
-            // call cleanup when we are done
-            if (getStatus() == Watchable.COMPLETED || getStatus() == Watchable.ERROR) {
+        }
+        // call cleanup when we are done
+        if (getStatus() == Watchable.COMPLETED || getStatus() == Watchable.ERROR) {
 
-                cleanup();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            PDFDebugger.debug("Thread interrupted while waiting for status change.");
+            cleanup();
         }
-        // notify that we are no longer running
-        this.thread = null;
     }
 
     /**
@@ -274,8 +285,13 @@ public abstract class BaseWatchable implements Watchable, Runnable {
 
         // we'return not running. Start up
         if (synchronous) {
+            // no hand-off to a worker thread, so there is nothing to wait for
             this.thread = Thread.currentThread();
-            run();
+            try {
+                runToCompletion();
+            } finally {
+                this.thread = null;
+            }
         } else {
         	this.thread = new Thread(this);
         	this.thread.setName(getClass().getName());
@@ -19,22 +19,45 @@
 package org.openpdf.renderer;
 
 import java.awt.image.BufferedImage;
-import java.lang.ref.SoftReference;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.awt.image.DataBuffer;
 
 /**
  * A cache of PDF pages and images.
+ * <p>
+ * Pages are weighted by their number of commands and images by the size of
+ * their pixel data. Both are kept in bounded LRU maps whose limits are taken
+ * from {@link Configuration} when the cache is created, so memory use is
+ * controlled explicitly instead of being left to the garbage collector.
  */
 public class Cache {
 
+    /** the number of independently locked segments of each map */
+    private static final int SEGMENTS = 4;
+
     /** the pages in the cache, mapped by page number */
-    private final Map<Integer, SoftReference<PageRecord>> pages;
+    private final WeightedLruCache<Integer, Record> pages;
+
+    /** the images in the cache, mapped by page number and image info */
+    private final WeightedLruCache<ImageKey, Record> images;
 
     /** Creates a new instance of a Cache */
     public Cache() {
-        this.pages = Collections.synchronizedMap(new HashMap<Integer, SoftReference<PageRecord>>());
+        this(Configuration.getInstance().getMaxCachedPageCommands(),
+                Configuration.getInstance().getMaxCachedImageBytes());
+    }
+
+    /**
+     * Creates a new instance of a Cache with explicit limits
+     *
+     * @param maxPageCommands the total number of page commands to keep,
+     * or a value &lt;= 0 for no limit
+     * @param maxImageBytes the total size of the image pixel data to keep,
+     * or a value &lt;= 0 for no limit
+     */
+    public Cache(long maxPageCommands, long maxImageBytes) {
+        CacheStatistics statistics = Configuration.getInstance().getCacheStatistics();
+        this.pages = new WeightedLruCache<>(maxPageCommands, SEGMENTS, Cache::weighPage, statistics);
+        this.images = new WeightedLruCache<>(maxImageBytes, SEGMENTS, Cache::weighImage, statistics);
     }
 
     /**
@@ -93,7 +116,7 @@ public class Cache {
      * @return the page, if it is in the cache, or null if not
      */
     public PDFPage getPage(Integer pageNumber) {
-        PageRecord rec = getPageRecord(pageNumber);
+        Record rec = getPageRecord(pageNumber);
         if (rec != null) {
             return (PDFPage) rec.value;
         }
@@ -109,7 +132,7 @@ public class Cache {
      * @return the parser, or null if it is not in the cache
      */
     public PDFParser getPageParser(Integer pageNumber) {
-        PageRecord rec = getPageRecord(pageNumber);
+        Record rec = getPageRecord(pageNumber);
         if (rec != null) {
             return (PDFParser) rec.generator;
         }
@@ -177,13 +200,13 @@ public class Cache {
      * The internal routine to add a page to the cache, and return the
      * page record which was generated
      */
-    PageRecord addPageRecord(Integer pageNumber, PDFPage page,
+    Record addPageRecord(Integer pageNumber, PDFPage page,
             PDFParser parser) {
-        PageRecord rec = new PageRecord();
+        Record rec = new Record();
         rec.value = page;
         rec.generator = parser;
 
-        this.pages.put(pageNumber, new SoftReference<PageRecord>(rec));
+        this.pages.put(pageNumber, rec);
 
         return rec;
     }
@@ -193,31 +216,20 @@ public class Cache {
      *
      * @return the record, or null if it's not in the cache
      */
-    PageRecord getPageRecord(Integer pageNumber) {
+    Record getPageRecord(Integer pageNumber) {
         PDFDebugger.debug("Request for page " + pageNumber, 1000);
-        SoftReference<PageRecord> ref = this.pages.get(pageNumber);
-        if (ref != null) {
-            String val = (ref.get() == null) ? " not in " : " in ";
-            PDFDebugger.debug("Page " + pageNumber + val + "cache", 1000);
-            return ref.get();
-        }
-
-        PDFDebugger.debug("Page " + pageNumber + " not in cache", 1000);
-        // not in cache
-        return null;
+        Record rec = this.pages.get(pageNumber);
+        PDFDebugger.debug("Page " + pageNumber + (rec == null ? " not in " : " in ") + "cache", 1000);
+        return rec;
     }
 
     /**
-     * Remove a page's record from the cache
+     * Remove a page's record, and the records of its images, from the cache
      */
-    PageRecord removePageRecord(Integer pageNumber) {
-        SoftReference<PageRecord> ref = this.pages.remove(pageNumber);
-        if (ref != null) {
-            return ref.get();
-        }
-
-        // not in cache
-        return null;
+    Record removePageRecord(Integer pageNumber) {
+        int number = pageNumber.intValue();
+        this.images.removeIf(key -> key.pageNumber == number);
+        return this.pages.remove(pageNumber);
     }
 
     /**
@@ -226,20 +238,11 @@ public class Cache {
      */
     Record addImageRecord(PDFPage page, ImageInfo info,
             BufferedImage image, PDFRenderer renderer) {
-        // first, find or create the relevant page record
-        Integer pageNumber = Integer.valueOf(page.getPageNumber());
-        PageRecord pageRec = getPageRecord(pageNumber);
-        if (pageRec == null) {
-            pageRec = addPageRecord(pageNumber, page, null);
-        }
-
-        // next, create the image record
         Record rec = new Record();
         rec.value = image;
         rec.generator = renderer;
 
-        // add it to the cache
-        pageRec.images.put(info, new SoftReference<Record>(rec));
+        this.images.put(new ImageKey(page.getPageNumber(), info), rec);
 
         return rec;
     }
@@ -250,46 +253,39 @@ public class Cache {
      * @return the record, or null if it's not in the cache
      */
     Record getImageRecord(PDFPage page, ImageInfo info) {
-        // first find the relevant page record
-        Integer pageNumber = Integer.valueOf(page.getPageNumber());
-
+        int pageNumber = page.getPageNumber();
         PDFDebugger.debug("Request for image on page " + pageNumber, 1000);
-
-        PageRecord pageRec = getPageRecord(pageNumber);
-        if (pageRec != null) {
-            SoftReference<Record> ref = pageRec.images.get(info);
-            if (ref != null) {
-                String val = (ref.get() == null) ? " not in " : " in ";
-                PDFDebugger.debug("Image on page " + pageNumber + val + " cache", 1000);
-                return ref.get();
-            }
-        }
-
-        PDFDebugger.debug("Image on page " + pageNumber + " not in cache", 1000);
-        // not found
-        return null;
+        Record rec = this.images.get(new ImageKey(pageNumber, info));
+        PDFDebugger.debug("Image on page " + pageNumber + (rec == null ? " not in " : " in ") + "cache", 1000);
+        return rec;
     }
 
     /**
      * Remove an image's record from the cache
      */
     Record removeImageRecord(PDFPage page, ImageInfo info) {
-        // first find the relevant page record
-        Integer pageNumber = Integer.valueOf(page.getPageNumber());
-        PageRecord pageRec = getPageRecord(pageNumber);
-        if (pageRec != null) {
-            SoftReference<Record> ref = pageRec.images.remove(info);
-            if (ref != null) {
-                return ref.get();
-            }
+        return this.images.remove(new ImageKey(page.getPageNumber(), info));
+    }
 
-        }
+    /** the weight of a page is its number of commands */
+    private static long weighPage(Record rec) {
+        PDFPage page = (PDFPage) rec.value;
+        return page == null ? 1 : Math.max(1, page.getCommandCount());
+    }
 
-        return null;
+    /** the weight of an image is the size of its pixel data in bytes */
+    private static long weighImage(Record rec) {
+        BufferedImage image = (BufferedImage) rec.value;
+        if (image == null) {
+            return 1;
+        }
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return Math.max(1, (long) buffer.getSize() * buffer.getNumBanks()
+                * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8);
     }
 
     /** the basic information about a page or image */
-    class Record {
+    static class Record {
 
         /** the page or image itself */
         Object value;
@@ -297,15 +293,7 @@ public class Cache {
         BaseWatchable generator;
     }
 
-    /** the record stored for each page in the cache */
-    class PageRecord extends Record {
-
-        /** any images associated with the page */
-        Map<ImageInfo, SoftReference<Record>> images;
-
-        /** create a new page record */
-        public PageRecord() {
-            this.images = Collections.synchronizedMap(new HashMap<ImageInfo, SoftReference<Record>>());
-        }
+    /** the key of a cached image */
+    private record ImageKey(int pageNumber, ImageInfo info) {
     }
-}
\ No newline at end of file
+}
@@ -30,6 +30,17 @@ public class Configuration {
     private boolean printFreetextAnnotations = true;
     /** Print link annotations on pdf **/
     private boolean printLinkAnnotations = true;
+
+    /** total number of page commands each document keeps cached */
+    private long maxCachedPageCommands = 250_000;
+    /** total size in bytes of the rendered images each document keeps cached */
+    private long maxCachedImageBytes = 64L * 1024 * 1024;
+    /** hit, miss and eviction counters of all page and image caches */
+    private final CacheStatistics cacheStatistics = new CacheStatistics();
+    /** total size in bytes of the rendered glyphs kept by the shared glyph cache */
+    private long maxGlyphCacheBytes = 16L * 1024 * 1024;
+    /** hit, miss and eviction counters of the shared glyph cache */
+    private final CacheStatistics glyphCacheStatistics = new CacheStatistics();
     
 	public static synchronized Configuration getInstance() {
 		if (INSTANCE == null) {
@@ -204,4 +215,80 @@ public class Configuration {
     public boolean isPrintLinkAnnotations() {
     	return this.printLinkAnnotations;
     }
+
+    /**
+     * Limit the number of parsed page commands that are cached per document.
+     * Least recently used pages are dropped once the limit is exceeded.
+     * Only documents opened afterwards are affected.
+     *
+     * Set to 0 or less for no limit. Defaults to 250000.
+     *
+     * @param maxCachedPageCommands the total number of commands to keep
+     */
+    public void setMaxCachedPageCommands(long maxCachedPageCommands) {
+        this.maxCachedPageCommands = maxCachedPageCommands;
+    }
+
+    /**
+     * @return the total number of page commands cached per document
+     */
+    public long getMaxCachedPageCommands() {
+        return this.maxCachedPageCommands;
+    }
+
+    /**
+     * Limit the size of the pixel data of rendered page images that are
+     * cached per document. Least recently used images are dropped once the
+     * limit is exceeded. Only documents opened afterwards are affected.
+     *
+     * Set to 0 or less for no limit. Defaults to 64 MB.
+     *
+     * @param maxCachedImageBytes the total size in bytes to keep
+     */
+    public void setMaxCachedImageBytes(long maxCachedImageBytes) {
+        this.maxCachedImageBytes = maxCachedImageBytes;
+    }
+
+    /**
+     * @return the total size in bytes of the images cached per document
+     */
+    public long getMaxCachedImageBytes() {
+        return this.maxCachedImageBytes;
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of the page and image
+     * caches of all documents
+     */
+    public CacheStatistics getCacheStatistics() {
+        return this.cacheStatistics;
+    }
+
+    /**
+     * Limit the memory used for rendered glyph bitmaps, which are shared by
+     * all documents. The shared cache reads this once, so it has to be
+     * called before the first page is rendered to have an effect.
+     *
+     * Set to 0 or less to always fill glyph outlines instead. Defaults
+     * to 16 MB.
+     *
+     * @param maxGlyphCacheBytes the total size in bytes to keep
+     */
+    public void setMaxGlyphCacheBytes(long maxGlyphCacheBytes) {
+        this.maxGlyphCacheBytes = maxGlyphCacheBytes;
+    }
+
+    /**
+     * @return the total size in bytes of the shared glyph cache
+     */
+    public long getMaxGlyphCacheBytes() {
+        return this.maxGlyphCacheBytes;
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of the shared glyph cache
+     */
+    public CacheStatistics getGlyphCacheStatistics() {
+        return this.glyphCacheStatistics;
+    }
 }
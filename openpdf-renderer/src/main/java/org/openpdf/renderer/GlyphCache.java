@@ -0,0 +1,189 @@
+package org.openpdf.renderer;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.GraphicsConfiguration;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.openpdf.renderer.font.GlyphOutline;
+import org.openpdf.renderer.font.PDFGlyph;
+
+/**
+ * A process wide cache of rendered glyphs.
+ * <p>
+ * Filling a glyph outline is the dominant cost of pages with lots of small
+ * text. Glyphs drawn with a solid color and without rotation or shear are
+ * rendered once into an anti-aliased bitmap and afterwards copied. Bitmaps
+ * are keyed by the glyph outline, the device scale, the position of the
+ * glyph origin within the pixel in steps of 1/16 pixel, and the color, so they
+ * are shared by all pages and documents using the same font program.
+ * <p>
+ * The cache is bounded by {@link Configuration#getMaxGlyphCacheBytes()}.
+ */
+class GlyphCache {
+
+    /** glyph origins are placed with this many steps per pixel */
+    private static final int SUBPIXELS = 16;
+    /** glyphs larger than this many pixels are filled as paths */
+    private static final int MAX_GLYPH_SIZE = 256;
+    /** approximate memory held by an entry besides its pixels */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /** the shared cache, or null if glyph caching is disabled */
+    private static final GlyphCache INSTANCE = create();
+
+    private final WeightedLruCache<Key, Bitmap> bitmaps;
+
+    GlyphCache(long maxBytes, CacheStatistics statistics) {
+        this.bitmaps = new WeightedLruCache<>(maxBytes, 8, GlyphCache::weigh, statistics);
+    }
+
+    private static GlyphCache create() {
+        Configuration configuration = Configuration.getInstance();
+        if (configuration.getMaxGlyphCacheBytes() <= 0) {
+            return null;
+        }
+        return new GlyphCache(configuration.getMaxGlyphCacheBytes(), configuration.getGlyphCacheStatistics());
+    }
+
+    /**
+     * @return the shared cache, or null if glyph caching is disabled
+     */
+    static GlyphCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Draw a glyph from its cached bitmap.
+     *
+     * @param g the graphics to draw on
+     * @param glyph the glyph to draw
+     * @param device the transform from glyph space to device space
+     * @param color the fill color, fully opaque
+     * @param composite the composite to draw with
+     * @return the region drawn in device space, or null if the glyph
+     * cannot be drawn from a bitmap and has to be filled as a path
+     */
+    Rectangle2D draw(Graphics2D g, PDFGlyph glyph, AffineTransform device, Color color, Composite composite) {
+        if (device.getShearX() != 0 || device.getShearY() != 0) {
+            return null;
+        }
+        GraphicsConfiguration configuration = g.getDeviceConfiguration();
+        if (configuration == null || configuration.getDevice() == null
+                || configuration.getDevice().getType() == GraphicsDevice.TYPE_PRINTER) {
+            // keep text as vectors when printing or when the device is unknown
+            return null;
+        }
+        GlyphOutline outline = glyph.getOutline();
+        if (outline == null) {
+            return null;
+        }
+
+        double originX = Math.floor(device.getTranslateX());
+        double originY = Math.floor(device.getTranslateY());
+        int subX = (int) Math.round((device.getTranslateX() - originX) * SUBPIXELS);
+        int subY = (int) Math.round((device.getTranslateY() - originY) * SUBPIXELS);
+        if (subX == SUBPIXELS) {
+            subX = 0;
+            originX++;
+        }
+        if (subY == SUBPIXELS) {
+            subY = 0;
+            originY++;
+        }
+
+        Key key = new Key(outline, (float) device.getScaleX(), (float) device.getScaleY(), subX, subY,
+                color.getRGB());
+        Bitmap bitmap = this.bitmaps.get(key);
+        if (bitmap == null) {
+            bitmap = render(glyph.getShape(), key, color);
+            this.bitmaps.put(key, bitmap);
+        }
+        if (bitmap.image == null) {
+            return bitmap.tooLarge ? null : new Rectangle2D.Double(originX, originY, 0, 0);
+        }
+
+        int x = (int) originX + bitmap.x;
+        int y = (int) originY + bitmap.y;
+        AffineTransform savedTransform = g.getTransform();
+        Composite savedComposite = g.getComposite();
+        try {
+            g.setTransform(new AffineTransform());
+            g.setComposite(composite);
+            g.drawImage(bitmap.image, x, y, null);
+        } finally {
+            g.setTransform(savedTransform);
+            g.setComposite(savedComposite);
+        }
+        return new Rectangle2D.Double(x, y, bitmap.image.getWidth(), bitmap.image.getHeight());
+    }
+
+    private static Bitmap render(GeneralPath shape, Key key, Color color) {
+        AffineTransform at = new AffineTransform(key.scaleX, 0, 0, key.scaleY,
+                (double) key.subX / SUBPIXELS, (double) key.subY / SUBPIXELS);
+        Shape outline = at.createTransformedShape(shape);
+        Rectangle bounds = outline.getBounds();
+        if (bounds.isEmpty()) {
+            return new Bitmap(null, 0, 0, false);
+        }
+        if (bounds.width > MAX_GLYPH_SIZE || bounds.height > MAX_GLYPH_SIZE) {
+            return new Bitmap(null, 0, 0, true);
+        }
+        // leave room for the anti-aliased edge
+        bounds.grow(1, 1);
+
+        BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(color);
+            g.translate(-bounds.x, -bounds.y);
+            g.fill(outline);
+        } finally {
+            g.dispose();
+        }
+        return new Bitmap(image, bounds.x, bounds.y, false);
+    }
+
+    /**
+     * @return the composite to draw a bitmap with instead of filling
+     * with the given one, or null if there is no equivalent
+     */
+    static Composite toBitmapComposite(Composite fill) {
+        if (!(fill instanceof AlphaComposite)) {
+            return null;
+        }
+        AlphaComposite alpha = (AlphaComposite) fill;
+        if (alpha.getRule() == AlphaComposite.SRC_OVER) {
+            return alpha;
+        }
+        if (alpha.getRule() == AlphaComposite.SRC && alpha.getAlpha() == 1f) {
+            // an anti-aliased opaque fill blends its edges like SRC_OVER
+            return AlphaComposite.SrcOver;
+        }
+        return null;
+    }
+
+    private static long weigh(Bitmap bitmap) {
+        if (bitmap.image == null) {
+            return ENTRY_OVERHEAD;
+        }
+        return ENTRY_OVERHEAD + 4L * bitmap.image.getWidth() * bitmap.image.getHeight();
+    }
+
+    private record Key(GlyphOutline outline, float scaleX, float scaleY, int subX, int subY, int rgb) {
+    }
+
+    /** a rendered glyph and the offset of its top left corner from the glyph origin */
+    private record Bitmap(BufferedImage image, int x, int y, boolean tooLarge) {
+    }
+}
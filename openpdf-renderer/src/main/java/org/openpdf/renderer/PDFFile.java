@@ -19,6 +19,7 @@
 package org.openpdf.renderer;
 
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -27,7 +28,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.openpdf.renderer.action.GoToAction;
 import org.openpdf.renderer.action.PDFAction;
@@ -1628,6 +1634,89 @@ public class PDFFile {
         return page;
     }
 
+    /**
+     * Render a page into an RGB image with a white background.  The page
+     * is parsed and rendered completely in the calling thread.
+     *
+     * @param pagenum the number of the page to render, starting at 1
+     * @param dpi the resolution of the image, 72 maps one point to one pixel
+     * @return the rendered page
+     * @throws IOException if the page does not exist or cannot be rendered
+     */
+    public BufferedImage renderPage(int pagenum, float dpi) throws IOException {
+        return PageRasterizer.renderPage(this, pagenum, dpi);
+    }
+
+    /**
+     * Render a range of pages on the given executor.  Pages are rendered
+     * concurrently but the returned stream yields them in page order.  At
+     * most twice as many pages as there are processors are rendered ahead
+     * of the consumer, so memory use does not grow with the document size.
+     * <p>
+     * The executor is not shut down.  Rendering errors are rethrown by the
+     * stream, I/O errors wrapped in an {@link java.io.UncheckedIOException}.
+     *
+     * @param firstPage the first page to render, starting at 1
+     * @param lastPage the last page to render, inclusive
+     * @param dpi the resolution of the images
+     * @param executor the executor that renders the pages
+     * @return the rendered pages, in order
+     */
+    public Stream<BufferedImage> renderPages(int firstPage, int lastPage, float dpi, ExecutorService executor) {
+        return renderPages(firstPage, lastPage, dpi, executor, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Render a range of pages on the given executor, with at most
+     * {@code lookahead} pages being rendered ahead of the consumer.
+     *
+     * @see #renderPages(int, int, float, ExecutorService)
+     */
+    public Stream<BufferedImage> renderPages(int firstPage, int lastPage, float dpi, ExecutorService executor,
+            int lookahead) {
+        if (firstPage < 1 || lastPage > getNumPages() || firstPage > lastPage) {
+            throw new IllegalArgumentException("Invalid page range " + firstPage + "-" + lastPage);
+        }
+        PageRasterizer.BatchIterator pages = new PageRasterizer.BatchIterator(this, firstPage, lastPage, dpi,
+                executor, lookahead);
+        return StreamSupport.stream(Spliterators.spliterator(pages, lastPage - firstPage + 1,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(pages::cancel);
+    }
+
+    /**
+     * Render a page in tiles, for pages too large to hold as one image.
+     * The tiles are rendered in the calling thread and passed to the sink
+     * one at a time, so only a single tile is held in memory.
+     *
+     * @param pagenum the number of the page to render, starting at 1
+     * @param dpi the resolution of the page image
+     * @param tileWidth the maximum width of a tile in pixels
+     * @param tileHeight the maximum height of a tile in pixels
+     * @param sink receives the tiles in row-major order
+     * @throws IOException if the page does not exist, cannot be rendered,
+     * or the sink fails
+     */
+    public void renderPageTiles(int pagenum, float dpi, int tileWidth, int tileHeight, TileSink sink)
+            throws IOException {
+        PageRasterizer.renderTiles(this, pagenum, dpi, tileWidth, tileHeight, sink, null, 1);
+    }
+
+    /**
+     * Render a page in tiles on the given executor.  Tiles are rendered
+     * concurrently with at most {@code lookahead} tiles ahead of the sink,
+     * which still receives them in row-major order in the calling thread.
+     * <p>
+     * The executor is not shut down.  Every tile replays the commands of
+     * the whole page clipped to the tile, so tiles should be large enough
+     * for the rasterization to dominate.
+     *
+     * @see #renderPageTiles(int, float, int, int, TileSink)
+     */
+    public void renderPageTiles(int pagenum, float dpi, int tileWidth, int tileHeight, TileSink sink,
+            ExecutorService executor, int lookahead) throws IOException {
+        PageRasterizer.renderTiles(this, pagenum, dpi, tileWidth, tileHeight, sink, executor, lookahead);
+    }
+
     /**
      * Stop the rendering of a particular image on this page
      */
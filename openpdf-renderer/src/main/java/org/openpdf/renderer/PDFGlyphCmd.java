@@ -0,0 +1,52 @@
+package org.openpdf.renderer;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Rectangle2D;
+
+import org.openpdf.renderer.font.PDFGlyph;
+
+/**
+ * A shape command for the outline of a glyph. Plain fills are drawn from the
+ * shared {@link GlyphCache} when possible, everything else is drawn like any
+ * other path.
+ */
+public class PDFGlyphCmd extends PDFShapeCmd {
+    /** the glyph, with its outline in glyph space */
+    private final PDFGlyph glyph;
+    /** the outline of the glyph in page space */
+    private final GeneralPath outline;
+    /** the transform from glyph space to page space */
+    private final AffineTransform transform;
+    /** the style */
+    private final int style;
+
+    /**
+     * @param glyph the glyph to draw
+     * @param outline the outline of the glyph in page space
+     * @param transform the transform from glyph space to page space
+     * @param style the style: an OR of STROKE, FILL, or CLIP
+     */
+    public PDFGlyphCmd(PDFGlyph glyph, GeneralPath outline, AffineTransform transform, int style) {
+        super(outline, style, false);
+        this.glyph = glyph;
+        this.outline = outline;
+        this.transform = new AffineTransform(transform);
+        this.style = style;
+    }
+
+    @Override
+    public Rectangle2D execute(PDFRenderer state) {
+        if (this.style == FILL) {
+            Rectangle2D rect = state.fillGlyph(this.glyph, this.transform);
+            if (rect != null) {
+                // the next fill checks its overlap with this glyph like
+                // with any other filled shape
+                state.setLastShape(this.outline);
+                state.rememberTransformation();
+                return rect;
+            }
+        }
+        return super.execute(state);
+    }
+}
@@ -35,6 +35,7 @@ import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
 import java.awt.image.IndexColorModel;
 import java.awt.image.MultiPixelPackedSampleModel;
 import java.awt.image.PackedColorModel;
@@ -59,6 +60,7 @@ import javax.imageio.metadata.IIOMetadataFormatImpl;
 import javax.imageio.stream.ImageInputStream;
 
 import org.openpdf.renderer.colorspace.AlternateColorSpace;
+import org.openpdf.renderer.colorspace.CMYKColorSpace;
 import org.openpdf.renderer.colorspace.IndexedColor;
 import org.openpdf.renderer.colorspace.PDFColorSpace;
 import org.openpdf.renderer.decode.PDFDecoder;
@@ -75,6 +77,9 @@ public class PDFImage {
 
 	private static int[][] GREY_TO_ARGB = new int[8][];
 
+	/** the color model of opaque images converted to RGB */
+	private static final DirectColorModel RGB_MODEL = new DirectColorModel(24, 0xff0000, 0x00ff00, 0x0000ff);
+
 	/**
 	 * color key mask. Array of start/end pairs of ranges of color components to
 	 * mask out. If a component falls within any of the ranges it is clear.
@@ -357,6 +362,14 @@ public class PDFImage {
 				throw new IOException(decodeEx.getMessage() + ". Maybe installing JAI for expanded image format "
 						+ "support would help?", decodeEx);
 			}
+		} else if (getBitsPerComponent() == 16) {
+			// Java2D has no use for the extra precision, and the byte based
+			// color models cannot hold it, so go on with the high bytes.
+			// This image keeps its depth, it is decoded again when the
+			// cached image has been collected
+			return toEightBitImage().parseData(toEightBits(data), null);
+		} else if ((bi = convertCmykToRgb(data)) != null) {
+			cm = bi.getColorModel();
 		} else {
 			// create the data buffer
 			DataBuffer db = new DataBufferByte(data, data.length);
@@ -387,25 +400,11 @@ public class PDFImage {
 				}
 			}
 
-			/*
-			 * Workaround for a bug on the Mac -- a class cast exception in
-			 * drawImage() due to the wrong data buffer type (?)
-			 */
 			bi = null;
 			if (cm instanceof IndexColorModel) {
-				IndexColorModel icm = (IndexColorModel) cm;
-
-				// choose the image type based on the size
-				int type = BufferedImage.TYPE_BYTE_BINARY;
-				if (getBitsPerComponent() == 8) {
-					type = BufferedImage.TYPE_BYTE_INDEXED;
-				}
-
-				// create the image with an explicit indexed color model.
-				bi = new BufferedImage(getWidth(), getHeight(), type, icm);
-
-				// set the data explicitly as well
-				bi.setData(raster);
+				// the raster already has the layout of a TYPE_BYTE_BINARY or
+				// TYPE_BYTE_INDEXED image, so use it instead of copying it
+				bi = new BufferedImage(cm, raster, false, null);
 			} else if (cm.getPixelSize() == 1 && cm.getNumComponents() == 1) {
 				// If the image is black and white only, convert it into
 				// BYTE_GRAY
@@ -496,33 +495,32 @@ public class PDFImage {
 	            }
 	            PDFDebugger.debugImage(si, "smask" + this.imageObj.getObjNum());
 
-    			BufferedImage outImage = new BufferedImage(w,h, BufferedImage.TYPE_INT_ARGB);
     			PDFDebugger.debugImage(si, "outImage" + this.imageObj.getObjNum());
-    			int[] srcArray = new int[w];
+    			// write the rows straight into the pixels of the result
+    			// rather than through setRGB
+    			int[] outPixels = new int[w * h];
     			int[] maskArray = new int[w];
     
     			for (int i = 0; i < h; i++) {
+    				int rowStart = i * w;
     				if (maskOnly) {
     					// use first pixel color from image
-    					Arrays.fill(srcArray, bi.getRGB(0,0));
+    					Arrays.fill(outPixels, rowStart, rowStart + w, bi.getRGB(0,0));
     				}
     				else {
     					// pixel row from image
-        				bi.getRGB(0, i, w, 1, srcArray, 0, w);
+        				bi.getRGB(0, i, w, 1, outPixels, rowStart, w);
     				}
     				// pixel row from mask
     				si.getRGB(0, i, w, 1, maskArray, 0, w);
     
     				for (int j = 0; j < w; j++) {
-    					int ac = 0xff000000;
     					// alpha from mask with color from image
-    					maskArray[j] = ((maskArray[j] & 0xff) << 24) | (srcArray[j] & ~ac);
+    					outPixels[rowStart + j] = ((maskArray[j] & 0xff) << 24) | (outPixels[rowStart + j] & 0xffffff);
     				}
-    				// write pixel row
-    				outImage.setRGB(0, i, w, 1, maskArray, 0, w);
     			}
     
-    			bi = outImage;
+    			bi = createArgbImage(outPixels, w, h);
             } catch (PDFImageParseException e) {
                 PDFDebugger.debug("Error parsing sMask image caused by:" + e.getMessage(), 100);
             }
@@ -623,13 +621,80 @@ public class PDFImage {
 			}
 		}
 
+		return createArgbImage(convertedPixels, getWidth(), getHeight());
+	}
+
+	/**
+	 * Convert 8 bit DeviceCMYK samples straight into the pixels of an RGB
+	 * image, instead of wrapping them in a CMYK image and drawing that,
+	 * which converts every pixel on its own.
+	 * 
+	 * @return the image, or null if this image has to take the general path
+	 */
+	private BufferedImage convertCmykToRgb(byte[] data) {
+		ColorSpace cs = getColorSpace().getColorSpace();
+		if (!(cs instanceof CMYKColorSpace) || getBitsPerComponent() != 8 || getDecode() != null
+				|| this.jpegDecode || isImageMask()) {
+			return null;
+		}
+		int w = getWidth();
+		int h = getHeight();
+		if (data.length < w * h * 4) {
+			// truncated data is padded by the general path
+			return null;
+		}
+		int[] pixels = new int[w * h];
+		((CMYKColorSpace) cs).toRGB(data, 0, pixels, 0, pixels.length);
+		return new BufferedImage(RGB_MODEL,
+				Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), w, h, w, RGB_MODEL.getMasks(),
+						null),
+				false, null);
+	}
+
+	/**
+	 * Wrap ARGB pixels in an image without copying them.
+	 */
+	private static BufferedImage createArgbImage(int[] pixels, int w, int h) {
 		final ColorModel ccm = ColorModel.getRGBdefault();
 		return new BufferedImage(ccm,
-				Raster.createPackedRaster(new DataBufferInt(convertedPixels, convertedPixels.length), getWidth(),
-						getHeight(), getWidth(), ((PackedColorModel) ccm).getMasks(), null),
+				Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), w, h, w,
+						((PackedColorModel) ccm).getMasks(), null),
 				false, null);
 	}
 
+	/**
+	 * Creates a copy of this image with 8 bits per component, to decode the
+	 * high bytes of 16 bit samples.
+	 */
+	private PDFImage toEightBitImage() throws IOException {
+		PDFImage image = new PDFImage(imageObj);
+		image.width = width;
+		image.height = height;
+		image.colorSpace = colorSpace;
+		image.bpc = 8;
+		image.imageMask = imageMask;
+		image.sMask = sMask;
+		image.decode = decode;
+		if (colorKeyMask != null) {
+			image.colorKeyMask = new int[colorKeyMask.length];
+			for (int i = 0; i < colorKeyMask.length; i++) {
+				image.colorKeyMask[i] = colorKeyMask[i] >> 8;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Reduce 16 bit samples to their high byte.
+	 */
+	private static byte[] toEightBits(byte[] data) {
+		byte[] result = new byte[data.length / 2];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = data[i * 2];
+		}
+		return result;
+	}
+
 	private static int[] getGreyToArgbMap(int numBits) {
 		assert numBits <= 8;
 		int[] argbVals = GREY_TO_ARGB[numBits - 1];
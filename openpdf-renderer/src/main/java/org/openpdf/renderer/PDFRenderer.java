@@ -21,6 +21,7 @@ package org.openpdf.renderer;
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Paint;
@@ -44,6 +45,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
 
+import org.openpdf.renderer.font.PDFGlyph;
+
 /**
  * This class turns a set of PDF Commands from a PDF page into an image.  It
  * encapsulates the state of drawing in terms of stroke, fill, transform,
@@ -273,6 +276,34 @@ public class PDFRenderer extends BaseWatchable implements Runnable {
         return this.state.fillPaint.fill(this, this.g, s);
     }
 
+    /**
+     * fill a glyph using the current fill paint from the shared glyph cache
+     * @param glyph the glyph to fill
+     * @param glyphTransform the transform from glyph space to page space
+     * @return the region drawn, or null if the glyph has to be filled as
+     * a path instead
+     */
+    Rectangle2D fillGlyph(PDFGlyph glyph, AffineTransform glyphTransform) {
+        if (this.state.fillPaint.getClass() != PDFPaint.class) {
+            return null;
+        }
+        Paint paint = this.state.fillPaint.getPaint();
+        if (!(paint instanceof Color) || ((Color) paint).getAlpha() != 255) {
+            return null;
+        }
+        Composite composite = GlyphCache.toBitmapComposite(this.state.fillAlpha);
+        if (composite == null) {
+            return null;
+        }
+        GlyphCache cache = GlyphCache.getInstance();
+        if (cache == null) {
+            return null;
+        }
+        AffineTransform device = new AffineTransform(this.g.getTransform());
+        device.concatenate(glyphTransform);
+        return cache.draw(this.g, glyph, device, (Color) paint, composite);
+    }
+
     /**
      * draw an image.
      * @param image the image to draw
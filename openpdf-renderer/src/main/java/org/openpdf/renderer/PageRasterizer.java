@@ -0,0 +1,309 @@
+package org.openpdf.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Rasterizes pages of a {@link PDFFile} into plain RGB images.
+ * <p>
+ * Every page is rendered synchronously in the thread that asks for it, so pages can be
+ * rendered concurrently on an {@link ExecutorService}. The batch iterator keeps only a
+ * bounded number of pages in flight and hands them out in page order. Single pages can
+ * also be rendered in tiles, which bounds the memory needed for very large pages.
+ */
+class PageRasterizer {
+
+    private PageRasterizer() {
+    }
+
+    /**
+     * Renders a single page at the given resolution onto a white background.
+     *
+     * @param file the document
+     * @param pagenum the 1-based page number
+     * @param dpi the resolution, 72 renders one pixel per point
+     * @return the rendered page
+     * @throws IOException if the page does not exist or could not be rendered
+     */
+    static BufferedImage renderPage(PDFFile file, int pagenum, float dpi) throws IOException {
+        PDFPage page = getPage(file, pagenum, dpi);
+        int width = getPixelWidth(page, dpi);
+        int height = getPixelHeight(page, dpi);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        render(page, pagenum, image, 0, 0, width, height);
+        return image;
+    }
+
+    /**
+     * Renders a single page in tiles of at most {@code tileWidth} by {@code tileHeight}
+     * pixels and passes them to the sink in row-major order. Only the tiles being
+     * rendered are held in memory, so the page may be far larger than the heap would
+     * allow as a single image.
+     *
+     * @param file the document
+     * @param pagenum the 1-based page number
+     * @param dpi the resolution, 72 renders one pixel per point
+     * @param tileWidth the maximum width of a tile
+     * @param tileHeight the maximum height of a tile
+     * @param sink receives the tiles
+     * @param executor renders the tiles concurrently, or null to render them in the
+     * calling thread
+     * @param lookahead the maximum number of tiles rendered ahead of the sink
+     * @throws IOException if the page does not exist, could not be rendered or the
+     * sink failed
+     */
+    static void renderTiles(PDFFile file, int pagenum, float dpi, int tileWidth, int tileHeight, TileSink sink,
+            ExecutorService executor, int lookahead) throws IOException {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Invalid tile size " + tileWidth + "x" + tileHeight);
+        }
+        PDFPage page = getPage(file, pagenum, dpi);
+        int width = getPixelWidth(page, dpi);
+        int height = getPixelHeight(page, dpi);
+        tileWidth = Math.min(tileWidth, width);
+        tileHeight = Math.min(tileHeight, height);
+
+        sink.start(width, height);
+        TileQueue queue = new TileQueue(page, pagenum, width, height, tileWidth, tileHeight, sink, executor,
+                executor == null ? 1 : Math.max(1, lookahead));
+        try {
+            for (int y = 0; y < height; y += tileHeight) {
+                for (int x = 0; x < width; x += tileWidth) {
+                    queue.add(x, y, Math.min(tileWidth, width - x), Math.min(tileHeight, height - y));
+                }
+            }
+            queue.drain();
+        } finally {
+            queue.cancel();
+        }
+        sink.finish();
+    }
+
+    private static PDFPage getPage(PDFFile file, int pagenum, float dpi) throws IOException {
+        if (dpi <= 0) {
+            throw new IllegalArgumentException("dpi must be positive: " + dpi);
+        }
+        PDFPage page = file.getPage(pagenum, true);
+        if (page == null) {
+            throw new PDFParseException("Page " + pagenum + " not found");
+        }
+        return page;
+    }
+
+    private static int getPixelWidth(PDFPage page, float dpi) {
+        return Math.max(1, (int) Math.ceil(page.getWidth() * dpi / 72f));
+    }
+
+    private static int getPixelHeight(PDFPage page, float dpi) {
+        return Math.max(1, (int) Math.ceil(page.getHeight() * dpi / 72f));
+    }
+
+    /**
+     * Renders the region of a page image of the given size that starts at
+     * {@code (x, y)} into the top left corner of the target.
+     */
+    private static void render(PDFPage page, int pagenum, BufferedImage target, int x, int y, int width,
+            int height) throws IOException {
+        Graphics2D g = target.createGraphics();
+        try {
+            // drawing outside of the target is dropped by the raster bounds
+            PDFRenderer renderer = new PDFRenderer(page, g, new Rectangle(-x, -y, width, height), null,
+                    Color.WHITE);
+            renderer.go(true);
+            if (renderer.getStatus() == Watchable.ERROR) {
+                throw new PDFParseException("Error rendering page " + pagenum, renderer.getException());
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Rethrows the cause of a failed rendering task.
+     */
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * The tiles of a page that are being rendered, in the order they are handed to the
+     * sink. Tile images are recycled once the sink is done with them, so at most
+     * {@code window} of them exist at any time.
+     */
+    private static class TileQueue {
+        private final PDFPage page;
+        private final int pagenum;
+        private final int width;
+        private final int height;
+        private final int tileWidth;
+        private final int tileHeight;
+        private final TileSink sink;
+        private final ExecutorService executor;
+        private final int window;
+        private final ArrayDeque<Tile> pending = new ArrayDeque<>();
+        private final ArrayDeque<BufferedImage> free = new ArrayDeque<>();
+
+        TileQueue(PDFPage page, int pagenum, int width, int height, int tileWidth, int tileHeight, TileSink sink,
+                ExecutorService executor, int window) {
+            this.page = page;
+            this.pagenum = pagenum;
+            this.width = width;
+            this.height = height;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            this.sink = sink;
+            this.executor = executor;
+            this.window = window;
+        }
+
+        void add(int x, int y, int w, int h) throws IOException {
+            while (pending.size() >= window) {
+                deliver(pending.poll());
+            }
+            BufferedImage buffer = free.poll();
+            if (buffer == null) {
+                buffer = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_RGB);
+            }
+            BufferedImage image = w == tileWidth && h == tileHeight ? buffer : buffer.getSubimage(0, 0, w, h);
+            Future<?> future;
+            if (executor == null) {
+                render(page, pagenum, image, x, y, width, height);
+                future = null;
+            } else {
+                future = executor.submit(() -> {
+                    render(page, pagenum, image, x, y, width, height);
+                    return null;
+                });
+            }
+            pending.add(new Tile(x, y, buffer, image, future));
+        }
+
+        void drain() throws IOException {
+            Tile tile;
+            while ((tile = pending.poll()) != null) {
+                deliver(tile);
+            }
+        }
+
+        private void deliver(Tile tile) throws IOException {
+            if (tile.future != null) {
+                try {
+                    tile.future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while rendering page " + pagenum);
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            }
+            sink.tile(tile.x, tile.y, tile.image);
+            free.add(tile.buffer);
+        }
+
+        /**
+         * Cancels all tiles that are still pending.
+         */
+        void cancel() {
+            Tile tile;
+            while ((tile = pending.poll()) != null) {
+                if (tile.future != null) {
+                    tile.future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private record Tile(int x, int y, BufferedImage buffer, BufferedImage image, Future<?> future) {
+    }
+
+    /**
+     * Iterates over rendered pages in page order while up to {@code window} following
+     * pages are being rendered on the executor.
+     */
+    static class BatchIterator implements Iterator<BufferedImage> {
+        private final PDFFile file;
+        private final float dpi;
+        private final ExecutorService executor;
+        private final int lastPage;
+        private final int window;
+        private final ArrayDeque<Future<BufferedImage>> pending = new ArrayDeque<>();
+        private int nextPage;
+
+        BatchIterator(PDFFile file, int firstPage, int lastPage, float dpi, ExecutorService executor,
+                int window) {
+            this.file = file;
+            this.dpi = dpi;
+            this.executor = executor;
+            this.lastPage = lastPage;
+            this.window = Math.max(1, window);
+            this.nextPage = firstPage;
+            fill();
+        }
+
+        private void fill() {
+            while (pending.size() < window && nextPage <= lastPage) {
+                int pagenum = nextPage++;
+                pending.add(executor.submit(() -> renderPage(file, pagenum, dpi)));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public BufferedImage next() {
+            Future<BufferedImage> head = pending.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                BufferedImage image = head.get();
+                fill();
+                return image;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while rendering pages");
+            } catch (ExecutionException e) {
+                cancel();
+                throw new UncheckedIOException(unwrap(e));
+            }
+        }
+
+        /**
+         * Cancels all pages that are still pending.
+         */
+        void cancel() {
+            Future<BufferedImage> future;
+            while ((future = pending.poll()) != null) {
+                future.cancel(true);
+            }
+            nextPage = lastPage + 1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.openpdf.renderer;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Receives a page rendered in tiles by
+ * {@link PDFFile#renderPageTiles(int, float, int, int, TileSink)}.
+ * <p>
+ * Tiles are delivered in row-major order, left to right and top to bottom,
+ * always from the same thread. The tile images are reused once the sink
+ * returns, so a sink has to copy or encode the pixels before returning.
+ * Configuring tiles as wide as the page turns them into horizontal bands,
+ * which suits scanline based encoders.
+ */
+public interface TileSink {
+
+    /**
+     * Called once before the first tile.
+     *
+     * @param width the width of the whole page in pixels
+     * @param height the height of the whole page in pixels
+     * @throws IOException if the sink cannot accept the page
+     */
+    default void start(int width, int height) throws IOException {
+    }
+
+    /**
+     * Called for every tile of the page.
+     *
+     * @param x the left edge of the tile in the page image
+     * @param y the top edge of the tile in the page image
+     * @param tile the rendered pixels, smaller than the configured tile
+     * size at the right and bottom edges of the page
+     * @throws IOException if the sink cannot accept the tile
+     */
+    void tile(int x, int y, BufferedImage tile) throws IOException;
+
+    /**
+     * Called once after the last tile.
+     *
+     * @throws IOException if the sink cannot complete the page
+     */
+    default void finish() throws IOException {
+    }
+}
@@ -0,0 +1,158 @@
+package org.openpdf.renderer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A size-bounded LRU map where every value has a weight, e.g. its size in
+ * bytes. The map is split into independently locked segments so concurrent
+ * renderers do not contend on a single monitor; each segment evicts its least
+ * recently used entries once it holds more than its share of the total weight.
+ * <p>
+ * The weight of an entry is recomputed whenever it is accessed, so values that
+ * grow after insertion, like pages that are still being parsed, are accounted
+ * for. A single entry heavier than its segment's limit is kept until another
+ * entry is added to that segment.
+ */
+class WeightedLruCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final ToLongFunction<V> weigher;
+    private final CacheStatistics statistics;
+
+    /**
+     * @param maxWeight the total weight to keep, or a value &lt;= 0 for no limit
+     * @param segmentCount the number of independently locked segments
+     * @param weigher computes the weight of a value
+     * @param statistics receives hit, miss and eviction counts
+     */
+    @SuppressWarnings("unchecked")
+    WeightedLruCache(long maxWeight, int segmentCount, ToLongFunction<V> weigher, CacheStatistics statistics) {
+        this.weigher = weigher;
+        this.statistics = statistics;
+        this.segments = new Segment[Math.max(1, segmentCount)];
+        long segmentWeight = maxWeight <= 0 ? Long.MAX_VALUE : Math.max(1, maxWeight / this.segments.length);
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new Segment<>(segmentWeight);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return this.segments[(h & Integer.MAX_VALUE) % this.segments.length];
+    }
+
+    V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                this.statistics.recordMiss();
+                return null;
+            }
+            this.statistics.recordHit();
+            long weight = this.weigher.applyAsLong(entry.value);
+            if (weight != entry.weight) {
+                segment.weight += weight - entry.weight;
+                entry.weight = weight;
+                evict(segment);
+            }
+            return entry.value;
+        }
+    }
+
+    void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = new Entry<>(value, this.weigher.applyAsLong(value));
+            Entry<V> old = segment.map.put(key, entry);
+            if (old != null) {
+                segment.weight -= old.weight;
+            }
+            segment.weight += entry.weight;
+            evict(segment);
+        }
+    }
+
+    V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> old = segment.map.remove(key);
+            if (old == null) {
+                return null;
+            }
+            segment.weight -= old.weight;
+            return old.value;
+        }
+    }
+
+    void removeIf(Predicate<K> filter) {
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                Iterator<Map.Entry<K, Entry<V>>> it = segment.map.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<K, Entry<V>> e = it.next();
+                    if (filter.test(e.getKey())) {
+                        segment.weight -= e.getValue().weight;
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    long weight() {
+        long weight = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return weight;
+    }
+
+    /** drop the least recently used entries of a segment, but never the last one */
+    private void evict(Segment<K, V> segment) {
+        Iterator<Entry<V>> it = segment.map.values().iterator();
+        while (segment.weight > segment.maxWeight && segment.map.size() > 1) {
+            Entry<V> eldest = it.next();
+            it.remove();
+            segment.weight -= eldest.weight;
+            this.statistics.recordEviction();
+        }
+    }
+
+    private static class Segment<K, V> {
+        final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        final long maxWeight;
+        long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
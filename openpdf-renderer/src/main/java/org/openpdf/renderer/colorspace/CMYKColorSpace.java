@@ -39,6 +39,25 @@ public class CMYKColorSpace extends ColorSpace {
 
 	private ICC_Profile icc;
 	private ICC_ColorSpace icc_cs;
+
+	/** the number of grid points per component of the RGB table */
+	private static final int GRID = 17;
+	/** the lower grid point of each 8 bit sample, never the last one */
+	private static final int[] GRID_INDEX = new int[256];
+	/** the position of each 8 bit sample between its grid points, 0..256 */
+	private static final int[] GRID_FRACTION = new int[256];
+
+	static {
+		for (int v = 0; v < 256; v++) {
+			int position = (v * (GRID - 1) * 256 + 127) / 255;
+			int index = Math.min(position >> 8, GRID - 2);
+			GRID_INDEX[v] = index;
+			GRID_FRACTION[v] = position - (index << 8);
+		}
+	}
+
+	/** RGB values on a grid of CMYK values, built on first use */
+	private volatile int[] rgbTable;
 	
 	/**
 	 * Create a new CMYKColorSpace Instance.
@@ -179,6 +198,101 @@ public class CMYKColorSpace extends ColorSpace {
 		return normalize(l_res);
 	}
 	
+	/**
+	 * Converts packed 8 bit CMYK samples to opaque RGB pixels. The conversion
+	 * is sampled once into a grid which is interpolated tetrahedrally, which
+	 * is far cheaper than running every pixel through {@link #toRGB(float[])}.
+	 * 
+	 * @param cmyk the samples, four per pixel
+	 * @param offset the index of the first sample
+	 * @param rgb receives the pixels as 0xRRGGBB
+	 * @param rgbOffset the index of the first pixel
+	 * @param count the number of pixels
+	 */
+	public void toRGB(byte[] cmyk, int offset, int[] rgb, int rgbOffset, int count) {
+		int[] table = getRGBTable();
+		final int sc = 3;
+		final int sm = 3 * GRID;
+		final int sy = 3 * GRID * GRID;
+		final int sk = 3 * GRID * GRID * GRID;
+		final int o3 = sc + sm + sy;
+		for (int i = 0; i < count; i++, offset += 4) {
+			int c = cmyk[offset] & 0xff;
+			int m = cmyk[offset + 1] & 0xff;
+			int y = cmyk[offset + 2] & 0xff;
+			int k = cmyk[offset + 3] & 0xff;
+			int fc = GRID_FRACTION[c];
+			int fm = GRID_FRACTION[m];
+			int fy = GRID_FRACTION[y];
+			int fk = GRID_FRACTION[k];
+
+			// pick the tetrahedron of the cube containing (c, m, y)
+			int o1, o2, w0, w1, w2, w3;
+			if (fc >= fm) {
+				if (fm >= fy) {
+					o1 = sc; o2 = sc + sm; w0 = 256 - fc; w1 = fc - fm; w2 = fm - fy; w3 = fy;
+				} else if (fc >= fy) {
+					o1 = sc; o2 = sc + sy; w0 = 256 - fc; w1 = fc - fy; w2 = fy - fm; w3 = fm;
+				} else {
+					o1 = sy; o2 = sc + sy; w0 = 256 - fy; w1 = fy - fc; w2 = fc - fm; w3 = fm;
+				}
+			} else {
+				if (fc >= fy) {
+					o1 = sm; o2 = sc + sm; w0 = 256 - fm; w1 = fm - fc; w2 = fc - fy; w3 = fy;
+				} else if (fm >= fy) {
+					o1 = sm; o2 = sm + sy; w0 = 256 - fm; w1 = fm - fy; w2 = fy - fc; w3 = fc;
+				} else {
+					o1 = sy; o2 = sm + sy; w0 = 256 - fy; w1 = fy - fm; w2 = fm - fc; w3 = fc;
+				}
+			}
+
+			// and interpolate linearly between the two black levels around k
+			int b0 = GRID_INDEX[c] * sc + GRID_INDEX[m] * sm + GRID_INDEX[y] * sy + GRID_INDEX[k] * sk;
+			int b1 = b0 + sk;
+			int pixel = 0;
+			for (int ch = 0; ch < 3; ch++) {
+				int v0 = w0 * table[b0 + ch] + w1 * table[b0 + o1 + ch] + w2 * table[b0 + o2 + ch]
+						+ w3 * table[b0 + o3 + ch];
+				int v1 = w0 * table[b1 + ch] + w1 * table[b1 + o1 + ch] + w2 * table[b1 + o2 + ch]
+						+ w3 * table[b1 + o3 + ch];
+				int v = (v0 * (256 - fk) + v1 * fk + (1 << 19)) >> 20;
+				pixel = (pixel << 8) | v;
+			}
+			rgb[rgbOffset + i] = pixel;
+		}
+	}
+
+	/**
+	 * @return RGB values of the grid points, scaled to 0..4080 and stored
+	 * with c varying fastest
+	 */
+	private int[] getRGBTable() {
+		int[] table = this.rgbTable;
+		if (table == null) {
+			table = new int[3 * GRID * GRID * GRID * GRID];
+			float[] cmyk = new float[4];
+			int i = 0;
+			for (int k = 0; k < GRID; k++) {
+				for (int y = 0; y < GRID; y++) {
+					for (int m = 0; m < GRID; m++) {
+						for (int c = 0; c < GRID; c++) {
+							cmyk[0] = c / (GRID - 1f);
+							cmyk[1] = m / (GRID - 1f);
+							cmyk[2] = y / (GRID - 1f);
+							cmyk[3] = k / (GRID - 1f);
+							float[] rgb = toRGB(cmyk);
+							for (int ch = 0; ch < 3; ch++) {
+								table[i++] = Math.round(Math.min(1f, Math.max(0f, rgb[ch])) * 4080);
+							}
+						}
+					}
+				}
+			}
+			this.rgbTable = table;
+		}
+		return table;
+	}
+
 	/**
 	 * Normalize ensures all color values returned are between 0 and 1.
 	 * 
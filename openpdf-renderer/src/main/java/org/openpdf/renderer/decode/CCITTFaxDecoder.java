@@ -64,30 +64,9 @@
  */
 package org.openpdf.renderer.decode;
 
-public class CCITTFaxDecoder {
-	static int[] table1 = { 0x00, // 0 bits are left in first byte - SHOULD
-			// NOT HAPPEN
-			0x01, // 1 bits are left in first byte
-			0x03, // 2 bits are left in first byte
-			0x07, // 3 bits are left in first byte
-			0x0f, // 4 bits are left in first byte
-			0x1f, // 5 bits are left in first byte
-			0x3f, // 6 bits are left in first byte
-			0x7f, // 7 bits are left in first byte
-			0xff // 8 bits are left in first byte
-	};
-
-	static int[] table2 = { 0x00, // 0
-			0x80, // 1
-			0xc0, // 2
-			0xe0, // 3
-			0xf0, // 4
-			0xf8, // 5
-			0xfc, // 6
-			0xfe, // 7
-			0xff // 8
-	};
+import java.util.Arrays;
 
+public class CCITTFaxDecoder {
 	// Table to be used when fillOrder = 2, for flipping bytes.
 	static byte[] flipTable = { 0, -128, 64, -64, 32, -96, 96, -32, 16, -112,
 			80, -48, 48, -80, 112, -16, 8, -120, 72, -56, 40, -88, 104, -24,
@@ -533,12 +512,16 @@ public class CCITTFaxDecoder {
 			41, 41, 41, 41, 41, 41, 41, 41, // 120 - 127
 			41, 41, 41, 41, 41, 41, 41, 41, };
 
-	private int bitPointer;
-
-	private int bytePointer;
+	// Position of the next bit to read in data
+	private int bitPos;
 
+	// The compressed data in fill order 1, followed by a few zero bytes so
+	// that reading a code never has to check the array bounds
 	private byte[] data;
 
+	// Number of bits of compressed data
+	private int dataBits;
+
 	private int w;
 
 	private boolean align = false;
@@ -565,30 +548,40 @@ public class CCITTFaxDecoder {
 	 * @param h
 	 */
 	public CCITTFaxDecoder(int fillOrder, int w, int h) {
-		this.fillOrder = fillOrder;
-		// Some of the decode methods assume prevChangingElms 
-		// and currChaningElems are at least of length 2.
-		if(w<2) {
-		   w=2;
+		if (fillOrder != 1 && fillOrder != 2) {
+			throw new IllegalArgumentException("tag must be either 1 or 2."); //$NON-NLS-1$
 		}
-
+		this.fillOrder = fillOrder;
 		this.w = w;
 
-		this.bitPointer = 0;
-		this.bytePointer = 0;
-		this.prevChangingElems = new int[w];
-		this.currChangingElems = new int[w];
+		// A scanline has at most one changing element per pixel, plus the
+		// two beyond its end.
+		this.prevChangingElems = new int[w + 2];
+		this.currChangingElems = new int[w + 2];
 	}
 
 	private boolean align() {
-		if (this.align && this.bitPointer != 0) {
-			this.bytePointer++;
-			this.bitPointer = 0;
+		if (this.align && (this.bitPos & 7) != 0) {
+			this.bitPos = (this.bitPos + 7) & ~7;
 			return true;
 		}
 		return false;
 	}
 
+	private void setData(byte[] compData) {
+		byte[] padded = new byte[compData.length + 4];
+		if (this.fillOrder == 1) {
+			System.arraycopy(compData, 0, padded, 0, compData.length);
+		} else {
+			for (int i = 0; i < compData.length; i++) {
+				padded[i] = flipTable[compData[i] & 0xff];
+			}
+		}
+		this.data = padded;
+		this.dataBits = compData.length * 8;
+		this.bitPos = 0;
+	}
+
 	protected boolean consumeEOL() {
 		// Get the next 12 bits.
 		int next12Bits = nextNBits(12);
@@ -815,10 +808,8 @@ public class CCITTFaxDecoder {
 	// One-dimensional decoding methods
 	public void decodeT41D(byte[] buffer, byte[] compData, int startX,
 			int height) {
-		this.data = compData;
+		setData(compData);
 		int scanlineStride = (this.w + 7) / 8;
-		this.bitPointer = 0;
-		this.bytePointer = 0;
 
 		int lineOffset = 0;
 		for (int i = 0; i < height; i++) {
@@ -831,10 +822,8 @@ public class CCITTFaxDecoder {
 	// Two-dimensional decoding methods
 	public void decodeT42D(byte[] buffer, byte[] compData, int startX,
 			int height) {
-		this.data = compData;
+		setData(compData);
 		int scanlineStride = (this.w + 7) / 8;
-		this.bitPointer = 0;
-		this.bytePointer = 0;
 
 		int a0;
 		int a1;
@@ -971,10 +960,8 @@ public class CCITTFaxDecoder {
 
 	public synchronized void decodeT6(byte[] buffer, byte[] compData,
 			int startX, int height) {
-		this.data = compData;
+		setData(compData);
 		int scanlineStride = (this.w + 7) / 8;
-		this.bitPointer = 0;
-		this.bytePointer = 0;
 
 		int a0;
 		int a1;
@@ -1190,7 +1177,7 @@ public class CCITTFaxDecoder {
 			// Add the changing element beyond the current scanline for the
 			// other color too
 			// make sure that the index does not exceed the bounds of the array
-			if (currIndex < this.w) {
+			if (currIndex < cce.length) {
 				cce[currIndex++] = bitOffset;
 			}
 
@@ -1288,122 +1275,17 @@ public class CCITTFaxDecoder {
 	}
 
 	private int nextLesserThan8Bits(int bitsToGet) {
-		byte b;
-		byte next;
-		int l = this.data.length - 1;
-		int bp = this.bytePointer;
-
-		if (this.fillOrder == 1) {
-			b = this.data[bp];
-			if (bp == l) {
-				next = 0x00;
-			} else {
-				next = this.data[bp + 1];
-			}
-		} else if (this.fillOrder == 2) {
-			b = flipTable[this.data[bp] & 0xff];
-			if (bp == l) {
-				next = 0x00;
-			} else {
-				next = flipTable[this.data[bp + 1] & 0xff];
-			}
-		} else {
-			throw new RuntimeException("tag must be either 1 or 2."); //$NON-NLS-1$
-		}
-
-		int bitsLeft = 8 - this.bitPointer;
-		int bitsFromNextByte = bitsToGet - bitsLeft;
-
-		int shift = bitsLeft - bitsToGet;
-		int i1;
-		int i2;
-		if (shift >= 0) {
-			i1 = (b & table1[bitsLeft]) >>> shift;
-			this.bitPointer += bitsToGet;
-			if (this.bitPointer == 8) {
-				this.bitPointer = 0;
-				this.bytePointer++;
-			}
-		} else {
-			i1 = (b & table1[bitsLeft]) << (-shift);
-			i2 = (next & table2[bitsFromNextByte]) >>> (8 - bitsFromNextByte);
-
-			i1 |= i2;
-			this.bytePointer++;
-			this.bitPointer = bitsFromNextByte;
-		}
-
-		return i1;
+		return nextNBits(bitsToGet);
 	}
 
+	// Reads up to 24 bits. Reading past the end of the data yields zeros
+	// for a few bytes and then fails with an index out of bounds.
 	private int nextNBits(int bitsToGet) {
-		byte b;
-		byte next;
-		byte next2next;
-		int l = this.data.length - 1;
-		int bp = this.bytePointer;
-
-		if (this.fillOrder == 1) {
-			b = this.data[bp];
-
-			if (bp == l) {
-				next = 0x00;
-				next2next = 0x00;
-			} else if ((bp + 1) == l) {
-				next = this.data[bp + 1];
-				next2next = 0x00;
-			} else {
-				next = this.data[bp + 1];
-				next2next = this.data[bp + 2];
-			}
-		} else if (this.fillOrder == 2) {
-			b = flipTable[this.data[bp] & 0xff];
-
-			if (bp == l) {
-				next = 0x00;
-				next2next = 0x00;
-			} else if ((bp + 1) == l) {
-				next = flipTable[this.data[bp + 1] & 0xff];
-				next2next = 0x00;
-			} else {
-				next = flipTable[this.data[bp + 1] & 0xff];
-				next2next = flipTable[this.data[bp + 2] & 0xff];
-			}
-		} else {
-			throw new RuntimeException("tag must be either 1 or 2."); //$NON-NLS-1$
-		}
-
-		int bitsLeft = 8 - this.bitPointer;
-		int bitsFromNextByte = bitsToGet - bitsLeft;
-		int bitsFromNext2NextByte = 0;
-		if (bitsFromNextByte > 8) {
-			bitsFromNext2NextByte = bitsFromNextByte - 8;
-			bitsFromNextByte = 8;
-		}
-
-		this.bytePointer++;
-
-		int i1 = (b & table1[bitsLeft]) << (bitsToGet - bitsLeft);
-		int i2 = (next & table2[bitsFromNextByte]) >>> (8 - bitsFromNextByte);
-
-		int i3 = 0;
-		if (bitsFromNext2NextByte != 0) {
-			i2 <<= bitsFromNext2NextByte;
-			i3 = (next2next & table2[bitsFromNext2NextByte]) >>> (8 - bitsFromNext2NextByte);
-			i2 |= i3;
-			this.bytePointer++;
-			this.bitPointer = bitsFromNext2NextByte;
-		} else {
-			if (bitsFromNextByte == 8) {
-				this.bitPointer = 0;
-				this.bytePointer++;
-			} else {
-				this.bitPointer = bitsFromNextByte;
-			}
-		}
-
-		int i = i1 | i2;
-		return i;
+		byte[] d = this.data;
+		int p = this.bitPos >>> 3;
+		int word = (d[p] << 24) | ((d[p + 1] & 0xff) << 16) | ((d[p + 2] & 0xff) << 8) | (d[p + 3] & 0xff);
+		this.bitPos += bitsToGet;
+		return (word << ((this.bitPos - bitsToGet) & 7)) >>> (32 - bitsToGet);
 	}
 
 	private int readEOL(boolean isFirstEOL) {
@@ -1433,7 +1315,7 @@ public class CCITTFaxDecoder {
 			// First EOL code word xxxx 0000 0000 0001 will occur
 			// As many fill bits will be present as required to make
 			// the EOL code of 12 bits end on a byte boundary.
-			int bitsLeft = 8 - this.bitPointer;
+			int bitsLeft = 8 - (this.bitPos & 7);
 
 			if (nextNBits(bitsLeft) != 0) {
 				throw new RuntimeException(
@@ -1491,8 +1373,8 @@ public class CCITTFaxDecoder {
 	// is returned it may be inferred that the EOF was reached first.
 	private boolean seekEOL() {
 		// Set maximum and current bit index into the compressed data.
-		int bitIndexMax = this.data.length * 8 - 1;
-		int bitIndex = this.bytePointer * 8 + this.bitPointer;
+		int bitIndexMax = this.dataBits - 1;
+		int bitIndex = this.bitPos;
 
 		// Loop while at least 12 bits are available.
 		while (bitIndex <= bitIndexMax - 12) {
@@ -1529,53 +1411,28 @@ public class CCITTFaxDecoder {
 
 	private void setToBlack(byte[] buffer, int lineOffset, int bitOffset,
 			int numBits) {
-		int bitNum = (8 * lineOffset) + bitOffset;
-		int lastBit = bitNum + numBits;
-
-		int byteNum = bitNum >> 3;
-
-		// Handle bits in first byte
-		int shift = bitNum & 0x7;
-		if (shift > 0) {
-			int maskVal = 1 << (7 - shift);
-			byte val = buffer[byteNum];
-			while ((maskVal > 0) && (bitNum < lastBit)) {
-				val |= maskVal;
-				maskVal >>= 1;
-				++bitNum;
-			}
-			buffer[byteNum] = val;
+		if (numBits <= 0) {
+			return;
 		}
+		int bitNum = (8 * lineOffset) + bitOffset;
+		int lastBit = bitNum + numBits - 1;
 
-		// Fill in 8 bits at a time
-		byteNum = bitNum >> 3;
-		while (bitNum < (lastBit - 7)) {
-			buffer[byteNum++] = (byte) 255;
-			bitNum += 8;
-		}
+		int firstByte = bitNum >> 3;
+		int lastByte = lastBit >> 3;
+		int firstMask = 0xff >>> (bitNum & 0x7);
+		int lastMask = 0xff << (7 - (lastBit & 0x7));
 
-		// Fill in remaining bits
-		while (bitNum < lastBit) {
-			byteNum = bitNum >> 3;
-			buffer[byteNum] |= (1 << (7 - (bitNum & 0x7)));
-			++bitNum;
+		if (firstByte == lastByte) {
+			buffer[firstByte] |= (byte) (firstMask & lastMask);
+			return;
 		}
+		buffer[firstByte] |= (byte) firstMask;
+		Arrays.fill(buffer, firstByte + 1, lastByte, (byte) 0xff);
+		buffer[lastByte] |= (byte) lastMask;
 	}
 
 	// Move pointer backwards by given amount of bits
 	private void updatePointer(int bitsToMoveBack) {
-		if (bitsToMoveBack > 8) {
-			this.bytePointer -= bitsToMoveBack / 8;
-			bitsToMoveBack %= 8;
-		}
-
-		int i = this.bitPointer - bitsToMoveBack;
-
-		if (i < 0) {
-			this.bytePointer--;
-			this.bitPointer = 8 + i;
-		} else {
-			this.bitPointer = i;
-		}
+		this.bitPos -= bitsToMoveBack;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package org.openpdf.renderer.font;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * The geometry of a glyph outline in glyph space, compared by value.
+ * <p>
+ * Identical font programs produce identical outlines, so this serves as the
+ * font and glyph part of the key of rendered glyph bitmaps shared between
+ * fonts, pages and documents.
+ */
+public final class GlyphOutline {
+
+    private final byte[] types;
+    private final float[] coords;
+    private final int hash;
+
+    private GlyphOutline(byte[] types, float[] coords) {
+        this.types = types;
+        this.coords = coords;
+        this.hash = 31 * Arrays.hashCode(types) + Arrays.hashCode(coords);
+    }
+
+    /**
+     * Capture the segments of the given shape.
+     */
+    public static GlyphOutline of(Shape shape) {
+        byte[] types = new byte[16];
+        float[] coords = new float[64];
+        int numTypes = 0;
+        int numCoords = 0;
+        float[] segment = new float[6];
+        for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+            int type = it.currentSegment(segment);
+            int count;
+            switch (type) {
+            case PathIterator.SEG_MOVETO:
+            case PathIterator.SEG_LINETO:
+                count = 2;
+                break;
+            case PathIterator.SEG_QUADTO:
+                count = 4;
+                break;
+            case PathIterator.SEG_CUBICTO:
+                count = 6;
+                break;
+            default:
+                count = 0;
+            }
+            if (numTypes == types.length) {
+                types = Arrays.copyOf(types, numTypes * 2);
+            }
+            types[numTypes++] = (byte) type;
+            if (numCoords + count > coords.length) {
+                coords = Arrays.copyOf(coords, Math.max(coords.length * 2, numCoords + count));
+            }
+            System.arraycopy(segment, 0, coords, numCoords, count);
+            numCoords += count;
+        }
+        return new GlyphOutline(Arrays.copyOf(types, numTypes), Arrays.copyOf(coords, numCoords));
+    }
+
+    /**
+     * @return the approximate number of bytes held by this outline
+     */
+    public int getSize() {
+        return this.types.length + this.coords.length * 4;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GlyphOutline)) {
+            return false;
+        }
+        GlyphOutline other = (GlyphOutline) obj;
+        return this.hash == other.hash && Arrays.equals(this.types, other.types)
+                && Arrays.equals(this.coords, other.coords);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
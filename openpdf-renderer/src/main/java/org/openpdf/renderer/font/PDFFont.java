@@ -455,7 +455,7 @@ public abstract class PDFFont {
      * @param name the name of the glyph, or null if the name is unknown
      * @return a glyph for this character
      */
-    public PDFGlyph getCachedGlyph(char src, String name) {
+    public synchronized PDFGlyph getCachedGlyph(char src, String name) {
         if (this.charCache == null) {
             this.charCache = new HashMap<Character,PDFGlyph>();
         }
@@ -22,8 +22,8 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
 
+import org.openpdf.renderer.PDFGlyphCmd;
 import org.openpdf.renderer.PDFPage;
-import org.openpdf.renderer.PDFShapeCmd;
 
 /**
 * A single glyph in a stream of PDF text, which knows how to write itself
@@ -40,6 +40,8 @@ public class PDFGlyph {
     private GeneralPath shape;
     /** the PDFPage storing this glyph's commands (for type 3 fonts) */
     private PDFPage page;
+    /** the shape as a value, created when first needed */
+    private volatile GlyphOutline outline;
 
     /** Creates a new instance of PDFGlyph based on a shape */
     public PDFGlyph(char src, String name, GeneralPath shape, Point2D.Float advance) {
@@ -72,6 +74,19 @@ public class PDFGlyph {
         return this.shape;
     }
 
+    /**
+     * Get the shape of this glyph as a value that equals the outlines of
+     * identical glyphs, or null for type 3 glyphs
+     */
+    public GlyphOutline getOutline() {
+        GlyphOutline result = this.outline;
+        if (result == null && this.shape != null) {
+            result = GlyphOutline.of(this.shape);
+            this.outline = result;
+        }
+        return result;
+    }
+
     /** Get the PDFPage for a type3 font glyph */
     public PDFPage getPage() {
         return this.page;
@@ -81,7 +96,7 @@ public class PDFGlyph {
     public Point2D addCommands(PDFPage cmds, AffineTransform transform, int mode) {
         if (this.shape != null) {
             GeneralPath outline = (GeneralPath) this.shape.createTransformedShape(transform);
-            cmds.addCommand(new PDFShapeCmd(outline, mode, false));
+            cmds.addCommand(new PDFGlyphCmd(this, outline, transform, mode));
         } else if (this.page != null) {
             cmds.addCommands(this.page, transform);
         }
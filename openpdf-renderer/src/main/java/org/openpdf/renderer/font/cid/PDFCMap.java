@@ -57,7 +57,7 @@ public abstract class PDFCMap {
     /**
      * Get a CMap, given a string name
      */
-    public static PDFCMap getCMap(String mapName) throws IOException {
+    public static synchronized PDFCMap getCMap(String mapName) throws IOException {
         if (cache == null) {
             populateCache();
         }
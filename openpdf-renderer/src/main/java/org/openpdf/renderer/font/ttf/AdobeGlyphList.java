@@ -123,6 +123,28 @@ public class AdobeGlyphList {
         glyphLoaderThread.start();
     }
 
+    /**
+     * Block until the loader thread has filled the tables.  The loader does
+     * not notify, so join it instead of polling.
+     */
+    private static void awaitGlyphList() {
+        Thread loader = glyphLoaderThread;
+        if (loader == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (loader.isAlive()) {
+            try {
+                loader.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * translate a glyph name into the possible unicode values that it
      * might represent. It is possible to have more than one unicode
@@ -132,15 +154,7 @@ public class AdobeGlyphList {
      * @return int[]
      */
     public static int[] getUnicodeValues(String glyphName) {
-        while (glyphLoaderThread != null && glyphLoaderThread.isAlive()) {
-            synchronized (glyphToUnicodes) {
-                try {
-                    glyphToUnicodes.wait(250);
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        }
+        awaitGlyphList();
         return glyphToUnicodes.get(glyphName);
     }
 
@@ -167,15 +181,7 @@ public class AdobeGlyphList {
      * @return String
      */
     public static String getGlyphName(int unicode) {
-        while (glyphLoaderThread != null && glyphLoaderThread.isAlive()) {
-            synchronized (glyphToUnicodes) {
-                try {
-                    glyphToUnicodes.wait(250);
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        }
+        awaitGlyphList();
         return unicodeToGlyph.get(Integer.valueOf(unicode));
     }
 }
\ No newline at end of file
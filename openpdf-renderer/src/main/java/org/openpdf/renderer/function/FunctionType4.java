@@ -20,12 +20,11 @@ package org.openpdf.renderer.function;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.*;
+import java.nio.charset.StandardCharsets;
 
 import org.openpdf.renderer.PDFObject;
-import org.openpdf.renderer.function.postscript.PostScriptParser;
-import org.openpdf.renderer.function.postscript.operation.OperationSet;
-import org.openpdf.renderer.function.postscript.operation.PostScriptOperation;
+import org.openpdf.renderer.PDFParseException;
+import org.openpdf.renderer.function.postscript.PostScriptProgram;
 
 /**
  * <p>A PostScript function is represented as a stream containing code
@@ -34,14 +33,18 @@ import org.openpdf.renderer.function.postscript.operation.PostScriptOperation;
  *
  * http://www.adobe.com/devnet/acrobat/pdfs/adobe_supplement_iso32000.pdf
  * </p>
+ * <p>The code is compiled once into a {@link PostScriptProgram}, which runs
+ * on a primitive operand stack kept per thread, so evaluating the function
+ * does not allocate.</p>
  */
 public class FunctionType4 extends PDFFunction {
 
-    /** the list of tokens and sub-expressions. */
-    private List<String> tokens;
-    
-    /** the stack of operations. The stack contents should all be Comparable. */
-    private Stack<Object> stack;
+    /** the operand stack of each thread evaluating functions */
+    private static final ThreadLocal<PostScriptProgram.OperandStack> STACK =
+            ThreadLocal.withInitial(PostScriptProgram.OperandStack::new);
+
+    /** the compiled program */
+    private PostScriptProgram program;
 
     /** Creates a new instance of FunctionType4 */
     protected FunctionType4() {
@@ -55,8 +58,12 @@ public class FunctionType4 extends PDFFunction {
     	
     	byte[] byteA = new byte[buf.remaining()];
     	buf.get(byteA);
-    	String scriptContent = new String(byteA, "UTF-8");
-    	this.tokens = new PostScriptParser().parse(scriptContent);
+    	String scriptContent = new String(byteA, StandardCharsets.UTF_8);
+    	try {
+    		this.program = PostScriptProgram.compile(scriptContent);
+    	} catch (IllegalArgumentException e) {
+    		throw new PDFParseException("Invalid PostScript function: " + e.getMessage(), e);
+    	}
     }
 
     /**
@@ -73,49 +80,30 @@ public class FunctionType4 extends PDFFunction {
      */
     @Override
 	protected void doFunction(float[] inputs, int inputOffset, float[] outputs, int outputOffset) {
-    	prepareInitialStack(inputs, inputOffset);
-    	for (Iterator<String> iterator = this.tokens.iterator(); iterator.hasNext(); ) {
-			String token = iterator.next();
-			PostScriptOperation op = OperationSet.getInstance().getOperation(token);
-			op.eval(this.stack);
-		}
-    	assertResultIsCorrect(outputs, outputOffset);
-    	prepareResult(outputs, outputOffset);
+    	this.program.execute(inputs, inputOffset, getNumInputs(), outputs, outputOffset, getNumOutputs(),
+    			STACK.get());
     }
 
-	/*************************************************************************
-	 * @param outputs
-	 * @param outputOffset
-	 ************************************************************************/
-	private void prepareResult(float[] outputs, int outputOffset) {
-		for (int i = outputOffset; i < outputs.length; i++) {
-    		outputs[outputs.length-i-1] = ((Double)this.stack.pop()).floatValue();
-		}
-	}
-
-	/*************************************************************************
-	 * Put all input values on the initial stack.
-	 * All values are pushed as Double because we calculate internally with double.
-	 * @param inputs
-	 * @param inputOffset
-	 ************************************************************************/
-	
-	private void prepareInitialStack(float[] inputs, int inputOffset) {
-		this.stack = new Stack<>();
-    	for (int i = inputOffset; i < inputs.length; i++) {
-    		this.stack.push(inputs[i]);
-		}
-	}
-
-	/*************************************************************************
-	 * @param outputs
-	 * @param outputOffset
-	 ************************************************************************/
-	
-	private void assertResultIsCorrect(float[] outputs, int outputOffset) {
-		int expectedResults = outputs.length-outputOffset;
-		if (this.stack.size() != expectedResults) {
-        	throw new IllegalStateException("Output does not match result "+expectedResults+"/"+this.stack);
+    /**
+     * Map <code>count</code> samples of <i>m</i> input values to <i>n</i>
+     * output values each, clipping to domain and range, without the per-call
+     * checks and lookups of {@link #calculate(float[], int, float[], int)}.
+     */
+    @Override
+    public void calculate(float[] inputs, float[] outputs, int count) {
+    	int m = getNumInputs();
+    	int n = getNumOutputs();
+    	PostScriptProgram.OperandStack stack = STACK.get();
+    	for (int i = 0; i < inputs.length && i < count * m; i++) {
+    		int d = i % m;
+    		inputs[i] = Math.min(Math.max(inputs[i], getDomain(2 * d)), getDomain(2 * d + 1));
+    	}
+    	for (int sample = 0; sample < count; sample++) {
+    		this.program.execute(inputs, sample * m, m, outputs, sample * n, n, stack);
     	}
-	}
-}
\ No newline at end of file
+    	for (int i = 0; i < count * n; i++) {
+    		int r = i % n;
+    		outputs[i] = Math.min(Math.max(outputs[i], getRange(2 * r)), getRange(2 * r + 1));
+    	}
+    }
+}
@@ -326,6 +326,26 @@ public abstract class PDFFunction {
         return outputs;
     }
 
+    /**
+     * Map <code>count</code> samples at once, e.g. when a shading samples
+     * a function for many pixels.  The inputs hold <i>m</i> values per
+     * sample and the outputs receive <i>n</i> values per sample, both
+     * packed without gaps.  The inputs may be clipped to the domain in place.
+     *
+     * @param inputs <code>count</code> * <i>m</i> input values
+     * @param outputs an array of at least <code>count</code> * <i>n</i> values
+     * @param count the number of samples
+     */
+    public void calculate (float[] inputs, float[] outputs, int count) {
+        int m = getNumInputs ();
+        float[] sample = new float[m];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy (inputs, i * m, sample, 0, m);
+            float[] result = calculate (sample);
+            System.arraycopy (result, 0, outputs, i * result.length, result.length);
+        }
+    }
+
     /**
      * Subclasses must implement this method to perform the actual function
      * on the given set of data.  Note that the inputs are guaranteed to be
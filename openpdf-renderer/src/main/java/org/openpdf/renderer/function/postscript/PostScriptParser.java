@@ -9,8 +9,11 @@ import java.util.StringTokenizer;
  *
  * @author  Bernd Rosstauscher
  * @since 22.10.2010
+ * @deprecated no longer used, {@link org.openpdf.renderer.function.FunctionType4} evaluates functions with
+ *             {@link PostScriptProgram}. Kept for API compatibility.
  ****************************************************************************/
 
+@Deprecated
 public class PostScriptParser {
 	
 	/*************************************************************************
@@ -0,0 +1,543 @@
+package org.openpdf.renderer.function.postscript;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*****************************************************************************
+ * A PostScript calculator function (PDF 32000-1:2008, 7.10.5) compiled into
+ * a flat instruction array for a stack machine working on primitive doubles.
+ * <p>
+ * Conditional blocks are compiled into jumps, so evaluation needs no
+ * allocation apart from the {@link OperandStack} which callers can reuse.
+ * Booleans are kept as 1 and 0 with a flag per stack slot, integers as
+ * doubles with an integral value.
+ ****************************************************************************/
+public final class PostScriptProgram {
+
+	/** the operand stack limit of the PDF specification */
+	public static final int MAX_STACK_DEPTH = 100;
+
+	private static final int PUSH = 0;
+	private static final int TRUE = 1;
+	private static final int FALSE = 2;
+	private static final int JUMP = 3;
+	private static final int JUMP_IF_FALSE = 4;
+	// arithmetic operators
+	private static final int ABS = 10;
+	private static final int ADD = 11;
+	private static final int ATAN = 12;
+	private static final int CEILING = 13;
+	private static final int COS = 14;
+	private static final int CVI = 15;
+	private static final int CVR = 16;
+	private static final int DIV = 17;
+	private static final int EXP = 18;
+	private static final int FLOOR = 19;
+	private static final int IDIV = 20;
+	private static final int LN = 21;
+	private static final int LOG = 22;
+	private static final int MOD = 23;
+	private static final int MUL = 24;
+	private static final int NEG = 25;
+	private static final int ROUND = 26;
+	private static final int SIN = 27;
+	private static final int SQRT = 28;
+	private static final int SUB = 29;
+	private static final int TRUNCATE = 30;
+	// relational, boolean and bitwise operators
+	private static final int AND = 40;
+	private static final int BITSHIFT = 41;
+	private static final int EQ = 42;
+	private static final int GE = 43;
+	private static final int GT = 44;
+	private static final int LE = 45;
+	private static final int LT = 46;
+	private static final int NE = 47;
+	private static final int NOT = 48;
+	private static final int OR = 49;
+	private static final int XOR = 50;
+	// stack operators
+	private static final int COPY = 60;
+	private static final int DUP = 61;
+	private static final int EXCH = 62;
+	private static final int INDEX = 63;
+	private static final int POP = 64;
+	private static final int ROLL = 65;
+
+	private static final Map<String, Integer> OPERATORS = new HashMap<>();
+
+	static {
+		OPERATORS.put("true", TRUE);
+		OPERATORS.put("false", FALSE);
+		OPERATORS.put("abs", ABS);
+		OPERATORS.put("add", ADD);
+		OPERATORS.put("atan", ATAN);
+		OPERATORS.put("ceiling", CEILING);
+		OPERATORS.put("cos", COS);
+		OPERATORS.put("cvi", CVI);
+		OPERATORS.put("cvr", CVR);
+		OPERATORS.put("div", DIV);
+		OPERATORS.put("exp", EXP);
+		OPERATORS.put("floor", FLOOR);
+		OPERATORS.put("idiv", IDIV);
+		OPERATORS.put("ln", LN);
+		OPERATORS.put("log", LOG);
+		OPERATORS.put("mod", MOD);
+		OPERATORS.put("mul", MUL);
+		OPERATORS.put("neg", NEG);
+		OPERATORS.put("round", ROUND);
+		OPERATORS.put("sin", SIN);
+		OPERATORS.put("sqrt", SQRT);
+		OPERATORS.put("sub", SUB);
+		OPERATORS.put("truncate", TRUNCATE);
+		OPERATORS.put("and", AND);
+		OPERATORS.put("bitshift", BITSHIFT);
+		OPERATORS.put("eq", EQ);
+		OPERATORS.put("ge", GE);
+		OPERATORS.put("gt", GT);
+		OPERATORS.put("le", LE);
+		OPERATORS.put("lt", LT);
+		OPERATORS.put("ne", NE);
+		OPERATORS.put("not", NOT);
+		OPERATORS.put("or", OR);
+		OPERATORS.put("xor", XOR);
+		OPERATORS.put("copy", COPY);
+		OPERATORS.put("dup", DUP);
+		OPERATORS.put("exch", EXCH);
+		OPERATORS.put("index", INDEX);
+		OPERATORS.put("pop", POP);
+		OPERATORS.put("roll", ROLL);
+	}
+
+	/** the opcodes */
+	private final int[] ops;
+	/** the operand of each opcode: a constant index or a jump target */
+	private final int[] args;
+	/** the numeric constants */
+	private final double[] constants;
+
+	private PostScriptProgram(int[] ops, int[] args, double[] constants) {
+		this.ops = ops;
+		this.args = args;
+		this.constants = constants;
+	}
+
+	/*************************************************************************
+	 * Compiles the given program. The whole program is expected to be
+	 * enclosed in braces, as in a PDF function stream.
+	 * @param scriptContent the PostScript code.
+	 * @return the compiled program.
+	 * @throws IllegalArgumentException if the code is not a valid calculator function.
+	 ************************************************************************/
+	public static PostScriptProgram compile(String scriptContent) {
+		List<String> tokens = tokenize(scriptContent);
+		Compiler compiler = new Compiler(tokens);
+		if (tokens.isEmpty() || !"{".equals(tokens.get(0))) {
+			throw new IllegalArgumentException("PS function does not start with '{'");
+		}
+		compiler.pos = 1;
+		compiler.block();
+		if (compiler.pos != tokens.size()) {
+			throw new IllegalArgumentException("PS token is not supported " + tokens.get(compiler.pos));
+		}
+		return compiler.build();
+	}
+
+	/** split the code into tokens, treating braces as tokens of their own */
+	private static List<String> tokenize(String scriptContent) {
+		List<String> tokens = new ArrayList<>();
+		int len = scriptContent.length();
+		int i = 0;
+		while (i < len) {
+			char c = scriptContent.charAt(i);
+			if (c == '{' || c == '}') {
+				tokens.add(String.valueOf(c));
+				i++;
+			} else if (c == '%') {
+				while (i < len && scriptContent.charAt(i) != '\n' && scriptContent.charAt(i) != '\r') {
+					i++;
+				}
+			} else if (Character.isWhitespace(c) || c == 0) {
+				i++;
+			} else {
+				int start = i;
+				while (i < len) {
+					c = scriptContent.charAt(i);
+					if (c == '{' || c == '}' || c == '%' || Character.isWhitespace(c) || c == 0) {
+						break;
+					}
+					i++;
+				}
+				tokens.add(scriptContent.substring(start, i));
+			}
+		}
+		return tokens;
+	}
+
+	/*************************************************************************
+	 * Runs the program.
+	 * @param inputs the input values, pushed onto the stack in order.
+	 * @param inputOffset the index of the first input.
+	 * @param numInputs the number of inputs.
+	 * @param outputs receives the stack contents, bottom first.
+	 * @param outputOffset the index of the first output.
+	 * @param numOutputs the number of values the program must leave on the stack.
+	 * @param stack the operand stack to work on, not shared between threads.
+	 * @throws IllegalStateException if the program under- or overflows the
+	 *         stack or does not leave {@code numOutputs} values.
+	 ************************************************************************/
+	public void execute(float[] inputs, int inputOffset, int numInputs,
+			float[] outputs, int outputOffset, int numOutputs, OperandStack stack) {
+		double[] s = stack.values;
+		boolean[] b = stack.bools;
+		int sp = 0;
+		for (int i = 0; i < numInputs; i++) {
+			s[sp] = inputs[inputOffset + i];
+			b[sp++] = false;
+		}
+		try {
+			sp = run(s, b, sp);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalStateException("PS function stack under- or overflow", e);
+		}
+		if (sp != numOutputs) {
+			throw new IllegalStateException("Output does not match result " + numOutputs + "/" + sp);
+		}
+		for (int i = 0; i < numOutputs; i++) {
+			outputs[outputOffset + i] = (float) s[i];
+		}
+	}
+
+	private int run(double[] s, boolean[] b, int sp) {
+		final int[] ops = this.ops;
+		final int[] args = this.args;
+		int pc = 0;
+		while (pc < ops.length) {
+			int op = ops[pc];
+			switch (op) {
+			case PUSH:
+				s[sp] = this.constants[args[pc]];
+				b[sp++] = false;
+				break;
+			case TRUE:
+				s[sp] = 1;
+				b[sp++] = true;
+				break;
+			case FALSE:
+				s[sp] = 0;
+				b[sp++] = true;
+				break;
+			case JUMP:
+				pc = args[pc];
+				continue;
+			case JUMP_IF_FALSE:
+				if (s[--sp] == 0) {
+					pc = args[pc];
+					continue;
+				}
+				break;
+			case ABS:
+				s[sp - 1] = Math.abs(s[sp - 1]);
+				break;
+			case ADD:
+				sp--;
+				s[sp - 1] += s[sp];
+				break;
+			case ATAN: {
+				double den = s[--sp];
+				double num = s[sp - 1];
+				double angle = Math.toDegrees(Math.atan2(num, den));
+				s[sp - 1] = angle < 0 ? angle + 360 : angle;
+				break;
+			}
+			case CEILING:
+				s[sp - 1] = Math.ceil(s[sp - 1]);
+				break;
+			case COS:
+				s[sp - 1] = Math.cos(Math.toRadians(s[sp - 1]));
+				break;
+			case CVI:
+			case TRUNCATE: {
+				double v = s[sp - 1];
+				s[sp - 1] = v < 0 ? Math.ceil(v) : Math.floor(v);
+				break;
+			}
+			case CVR:
+				break;
+			case DIV:
+				sp--;
+				s[sp - 1] /= s[sp];
+				break;
+			case EXP:
+				sp--;
+				s[sp - 1] = Math.pow(s[sp - 1], s[sp]);
+				break;
+			case FLOOR:
+				s[sp - 1] = Math.floor(s[sp - 1]);
+				break;
+			case IDIV: {
+				long divisor = (long) s[--sp];
+				s[sp - 1] = divisor == 0 ? 0 : (long) s[sp - 1] / divisor;
+				break;
+			}
+			case LN:
+				s[sp - 1] = Math.log(s[sp - 1]);
+				break;
+			case LOG:
+				s[sp - 1] = Math.log10(s[sp - 1]);
+				break;
+			case MOD: {
+				long divisor = (long) s[--sp];
+				s[sp - 1] = divisor == 0 ? 0 : (long) s[sp - 1] % divisor;
+				break;
+			}
+			case MUL:
+				sp--;
+				s[sp - 1] *= s[sp];
+				break;
+			case NEG:
+				s[sp - 1] = -s[sp - 1];
+				break;
+			case ROUND:
+				s[sp - 1] = Math.floor(s[sp - 1] + 0.5);
+				break;
+			case SIN:
+				s[sp - 1] = Math.sin(Math.toRadians(s[sp - 1]));
+				break;
+			case SQRT:
+				s[sp - 1] = Math.sqrt(s[sp - 1]);
+				break;
+			case SUB:
+				sp--;
+				s[sp - 1] -= s[sp];
+				break;
+			case AND:
+				sp--;
+				s[sp - 1] = (long) s[sp - 1] & (long) s[sp];
+				b[sp - 1] &= b[sp];
+				break;
+			case OR:
+				sp--;
+				s[sp - 1] = (long) s[sp - 1] | (long) s[sp];
+				b[sp - 1] &= b[sp];
+				break;
+			case XOR:
+				sp--;
+				s[sp - 1] = (long) s[sp - 1] ^ (long) s[sp];
+				b[sp - 1] &= b[sp];
+				break;
+			case NOT:
+				s[sp - 1] = b[sp - 1] ? 1 - s[sp - 1] : ~(long) s[sp - 1];
+				break;
+			case BITSHIFT: {
+				int shift = (int) s[--sp];
+				long value = (long) s[sp - 1];
+				s[sp - 1] = shift >= 0 ? value << shift : value >> -shift;
+				break;
+			}
+			case EQ:
+			case GE:
+			case GT:
+			case LE:
+			case LT:
+			case NE: {
+				double right = s[--sp];
+				double left = s[sp - 1];
+				s[sp - 1] = compare(op, left, right) ? 1 : 0;
+				b[sp - 1] = true;
+				break;
+			}
+			case COPY: {
+				int n = (int) s[--sp];
+				System.arraycopy(s, sp - n, s, sp, n);
+				System.arraycopy(b, sp - n, b, sp, n);
+				sp += n;
+				break;
+			}
+			case DUP:
+				s[sp] = s[sp - 1];
+				b[sp] = b[sp - 1];
+				sp++;
+				break;
+			case EXCH: {
+				double v = s[sp - 1];
+				s[sp - 1] = s[sp - 2];
+				s[sp - 2] = v;
+				boolean f = b[sp - 1];
+				b[sp - 1] = b[sp - 2];
+				b[sp - 2] = f;
+				break;
+			}
+			case INDEX: {
+				int n = (int) s[sp - 1];
+				s[sp - 1] = s[sp - 2 - n];
+				b[sp - 1] = b[sp - 2 - n];
+				break;
+			}
+			case POP:
+				sp--;
+				break;
+			case ROLL:
+				sp = roll(s, b, sp);
+				break;
+			default:
+				throw new IllegalStateException("Unknown opcode " + op);
+			}
+			pc++;
+		}
+		return sp;
+	}
+
+	private static boolean compare(int op, double left, double right) {
+		switch (op) {
+		case EQ:
+			return left == right;
+		case GE:
+			return left >= right;
+		case GT:
+			return left > right;
+		case LE:
+			return left <= right;
+		case LT:
+			return left < right;
+		default:
+			return left != right;
+		}
+	}
+
+	/** <i>any(n-1) ... any0 n j</i> <b>roll</b>, rotating in place */
+	private static int roll(double[] s, boolean[] b, int sp) {
+		int j = (int) s[--sp];
+		int n = (int) s[--sp];
+		if (n <= 0 || sp < n) {
+			// non-standard code, do nothing for compatibility
+			return sp;
+		}
+		j %= n;
+		if (j < 0) {
+			j += n;
+		}
+		int base = sp - n;
+		reverse(s, b, base, sp - 1);
+		reverse(s, b, base, base + j - 1);
+		reverse(s, b, base + j, sp - 1);
+		return sp;
+	}
+
+	private static void reverse(double[] s, boolean[] b, int from, int to) {
+		while (from < to) {
+			double v = s[from];
+			s[from] = s[to];
+			s[to] = v;
+			boolean f = b[from];
+			b[from] = b[to];
+			b[to] = f;
+			from++;
+			to--;
+		}
+	}
+
+	/*************************************************************************
+	 * The operand stack of a running program. Reusing one per thread makes
+	 * evaluation allocation free.
+	 ************************************************************************/
+	public static final class OperandStack {
+		final double[] values;
+		final boolean[] bools;
+
+		public OperandStack() {
+			// room for the inputs on top of the specification limit
+			this.values = new double[MAX_STACK_DEPTH + 32];
+			this.bools = new boolean[this.values.length];
+		}
+	}
+
+	/** translates tokens into instructions, resolving blocks into jumps */
+	private static final class Compiler {
+		private final List<String> tokens;
+		private final List<Double> constants = new ArrayList<>();
+		private int[] ops = new int[64];
+		private int[] args = new int[64];
+		private int size;
+		int pos;
+
+		Compiler(List<String> tokens) {
+			this.tokens = tokens;
+		}
+
+		/** compile up to and including the closing brace of the current block */
+		void block() {
+			while (this.pos < this.tokens.size()) {
+				String token = this.tokens.get(this.pos++);
+				if ("}".equals(token)) {
+					return;
+				}
+				if ("{".equals(token)) {
+					conditional();
+					continue;
+				}
+				Integer op = OPERATORS.get(token.toLowerCase());
+				if (op != null) {
+					emit(op, 0);
+				} else {
+					try {
+						this.constants.add(Double.parseDouble(token));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("PS token is not supported " + token);
+					}
+					emit(PUSH, this.constants.size() - 1);
+				}
+			}
+			throw new IllegalArgumentException("PS function is missing '}'");
+		}
+
+		/**
+		 * compile <i>bool {proc} if</i> or <i>bool {proc1} {proc2} ifelse</i>,
+		 * the opening brace of the first procedure has been consumed
+		 */
+		private void conditional() {
+			int jumpIfFalse = emit(JUMP_IF_FALSE, 0);
+			block();
+			if (this.pos < this.tokens.size() && "{".equals(this.tokens.get(this.pos))) {
+				this.pos++;
+				int jumpToEnd = emit(JUMP, 0);
+				this.args[jumpIfFalse] = this.size;
+				block();
+				this.args[jumpToEnd] = this.size;
+				expect("ifelse");
+			} else {
+				this.args[jumpIfFalse] = this.size;
+				expect("if");
+			}
+		}
+
+		private void expect(String operator) {
+			if (this.pos >= this.tokens.size() || !operator.equalsIgnoreCase(this.tokens.get(this.pos))) {
+				throw new IllegalArgumentException("PS procedure must be followed by " + operator);
+			}
+			this.pos++;
+		}
+
+		private int emit(int op, int arg) {
+			if (this.size == this.ops.length) {
+				this.ops = Arrays.copyOf(this.ops, this.size * 2);
+				this.args = Arrays.copyOf(this.args, this.size * 2);
+			}
+			this.ops[this.size] = op;
+			this.args[this.size] = arg;
+			return this.size++;
+		}
+
+		PostScriptProgram build() {
+			double[] values = new double[this.constants.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = this.constants.get(i);
+			}
+			return new PostScriptProgram(Arrays.copyOf(this.ops, this.size),
+					Arrays.copyOf(this.args, this.size), values);
+		}
+	}
+}
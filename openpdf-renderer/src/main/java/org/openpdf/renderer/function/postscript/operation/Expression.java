@@ -4,6 +4,11 @@ import java.util.LinkedList;
 
 
 
+/**
+ * @deprecated no longer used, {@link org.openpdf.renderer.function.FunctionType4} evaluates functions with
+ *             {@link org.openpdf.renderer.function.postscript.PostScriptProgram}. Kept for API compatibility.
+ */
+@Deprecated
 public class Expression extends LinkedList<Object> {
 
     @Override
@@ -3,6 +3,11 @@ package org.openpdf.renderer.function.postscript.operation;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * @deprecated no longer used, {@link org.openpdf.renderer.function.FunctionType4} evaluates functions with
+ *             {@link org.openpdf.renderer.function.postscript.PostScriptProgram}. Kept for API compatibility.
+ */
+@Deprecated
 public class OperationSet {
 	
     /** the set of all Operations we support. These operations are defined
@@ -2,6 +2,11 @@ package org.openpdf.renderer.function.postscript.operation;
 
 import java.util.Stack;
 
+/**
+ * @deprecated no longer used, {@link org.openpdf.renderer.function.FunctionType4} evaluates functions with
+ *             {@link org.openpdf.renderer.function.postscript.PostScriptProgram}. Kept for API compatibility.
+ */
+@Deprecated
 public interface PostScriptOperation {
 
     /**
@@ -65,6 +65,15 @@ public class ShaderType2 extends PDFShader {
     
     /** functions, as an array of either 1 or n functions */
     private PDFFunction[] functions;
+
+    /** the number of samples of the color lookup table */
+    private static final int COLOR_TABLE_SIZE = 1024;
+
+    /**
+     * the colors along the axis as RGB triples, from minT to maxT,
+     * built on first use
+     */
+    private volatile int[] colorTable;
      
     /** Creates a new instance of ShaderType2 */
     public ShaderType2() {
@@ -168,6 +177,7 @@ public class ShaderType2 extends PDFShader {
      */
     protected void setMinT(float minT) {
         this.minT = minT;
+        this.colorTable = null;
     }
     
     /** 
@@ -182,6 +192,7 @@ public class ShaderType2 extends PDFShader {
      */
     protected void setMaxT(float maxT) {
         this.maxT = maxT;
+        this.colorTable = null;
     }
     
     /**
@@ -224,6 +235,73 @@ public class ShaderType2 extends PDFShader {
      */
     protected void setFunctions(PDFFunction[] functions) {
         this.functions = functions;
+        this.colorTable = null;
+    }
+
+    /**
+     * Get the colors of the shading sampled at COLOR_TABLE_SIZE points
+     * between minT and maxT.  The functions and the conversion to RGB are
+     * evaluated only once per shading, since the shader is cached on its
+     * PDFObject, so painting only needs table lookups.
+     *
+     * @return the RGB components, three per sample
+     */
+    int[] getColorTable() {
+        int[] table = this.colorTable;
+        if (table == null) {
+            table = createColorTable();
+            this.colorTable = table;
+        }
+        return table;
+    }
+
+    private int[] createColorTable() {
+        PDFColorSpace shadeCSpace = getColorSpace();
+        PDFFunction[] functions = getFunctions();
+        int numComponents = ColorSpace.getInstance(ColorSpace.CS_sRGB).getNumComponents();
+        int numOutputs = shadeCSpace.getNumComponents();
+        float dt1t0 = getMaxT() - getMinT();
+
+        float[] inputs = new float[COLOR_TABLE_SIZE];
+        for (int k = 0; k < COLOR_TABLE_SIZE; k++) {
+            inputs[k] = getMinT() + dt1t0 * k / (COLOR_TABLE_SIZE - 1);
+        }
+
+        // evaluate the functions for all samples at once
+        float[] samples = new float[COLOR_TABLE_SIZE * numOutputs];
+        if (functions.length == 1) {
+            int n = Math.max(1, functions[0].getNumOutputs());
+            float[] values = new float[COLOR_TABLE_SIZE * n];
+            functions[0].calculate(inputs.clone(), values, COLOR_TABLE_SIZE);
+            for (int k = 0; k < COLOR_TABLE_SIZE; k++) {
+                System.arraycopy(values, k * n, samples, k * numOutputs, Math.min(n, numOutputs));
+            }
+        } else {
+            float[] values = new float[COLOR_TABLE_SIZE];
+            for (int c = 0; c < functions.length && c < numOutputs; c++) {
+                functions[c].calculate(inputs.clone(), values, COLOR_TABLE_SIZE);
+                for (int k = 0; k < COLOR_TABLE_SIZE; k++) {
+                    samples[k * numOutputs + c] = values[k];
+                }
+            }
+        }
+
+        int[] table = new int[COLOR_TABLE_SIZE * numComponents];
+        float[] outputs = new float[numOutputs];
+        for (int k = 0; k < COLOR_TABLE_SIZE; k++) {
+            System.arraycopy(samples, k * numOutputs, outputs, 0, numOutputs);
+            float[] outputRBG;
+            if (functions[0].getNumOutputs() != numComponents) {
+                //CMYK
+                outputRBG = shadeCSpace.getColorSpace().toRGB(outputs);
+            } else {
+                outputRBG = outputs;
+            }
+            for (int c = 0; c < numComponents; c++) {
+                table[k * numComponents + c] = (int) (outputRBG[c] * 255);
+            }
+        }
+        return table;
     }
     
     /**
@@ -306,56 +384,30 @@ public class ShaderType2 extends PDFShader {
         @Override
         public Raster getRaster(int x, int y, int w, int h) {
         	ColorSpace cs = getColorModel().getColorSpace();
-            PDFColorSpace shadeCSpace = getColorSpace();
-
-
-        	PDFFunction functions[] = getFunctions();
         	int numComponents = cs.getNumComponents();
+        	int[] colors = getColorTable();
+        	int last = COLOR_TABLE_SIZE - 1;
 
         	float x0 = (float) this.start.getX();
         	float y0 = (float) this.start.getY();
 
-        	float[] inputs = new float[1];
-            float[] outputs = new float[shadeCSpace.getNumComponents()];
-            float[] outputRBG = new float[numComponents];
-
         	// all the data, plus alpha channel
         	int[] data = new int[w * h * (numComponents + 1)];
 
         	// for each device coordinate
         	for (int j = 0; j < h; j++) {
         		for (int i = 0; i < w; i += 1) {
-        			boolean render = true;
-        			// find t for that user coordinate
+        			// find the position along the axis for that coordinate
                     float xp = getXPrime((float)(i + x), (float)(j + y), x0, y0);
-                    float t = 0;
-        			if (xp >= 0 && xp <= 1) t = getMinT() + (dt1t0 * xp);
-        			else if (xp < 0 && extendStart) t = getMinT();
-        			else if (xp > 1 && extendEnd) t = getMaxT();
-        			else render = false;
-
-        			if (render) {
-        				// calculate the pixel values at t
-        				inputs[0] = t;
-        				if (functions.length == 1) {
-        					functions[0].calculate(inputs, 0, outputs, 0);
-        				} else {
-        					for (int c = 0; c < functions.length; c++) {
-        						functions[c].calculate(inputs, 0, outputs, c);
-        					} 
-        				}
-        				if (functions[0].getNumOutputs() != numComponents) {
-        					//CMYK
-        					outputRBG = shadeCSpace.getColorSpace().toRGB(outputs);
-        				}
-        				else outputRBG = outputs;
+                    int index;
+        			if (xp >= 0 && xp <= 1) index = Math.round(xp * last);
+        			else if (xp < 0 && extendStart) index = 0;
+        			else if (xp > 1 && extendEnd) index = last;
+        			else continue;
 
-        				int base = (j * w + i) * (numComponents + 1);
-        				for (int c = 0; c < numComponents; c++) {
-        					data[base + c] = (int) (outputRBG[c] * 255);
-        				}
-        				data[base + numComponents] = 255; 
-        			}
+        			int base = (j * w + i) * (numComponents + 1);
+        			System.arraycopy(colors, index * numComponents, data, base, numComponents);
+        			data[base + numComponents] = 255;
         		}
         	}
 
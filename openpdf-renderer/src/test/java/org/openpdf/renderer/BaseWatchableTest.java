@@ -0,0 +1,59 @@
+package org.openpdf.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaseWatchableTest {
+
+    private static class CountingWatchable extends BaseWatchable {
+        private final int steps;
+        private final List<Thread> threads = new ArrayList<>();
+        private boolean cleanedUp;
+
+        CountingWatchable(int steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        protected int iterate() {
+            threads.add(Thread.currentThread());
+            return threads.size() < steps ? Watchable.RUNNING : Watchable.COMPLETED;
+        }
+
+        @Override
+        protected void cleanup() {
+            cleanedUp = true;
+        }
+    }
+
+    @Test
+    void synchronousGo_runsToCompletionInCallingThread() {
+        CountingWatchable watchable = new CountingWatchable(100);
+
+        watchable.go(true);
+
+        assertThat(watchable.getStatus()).isEqualTo(Watchable.COMPLETED);
+        assertThat(watchable.threads).hasSize(100).containsOnly(Thread.currentThread());
+        assertThat(watchable.cleanedUp).isTrue();
+    }
+
+    @Test
+    void synchronousGo_worksOnVirtualThreads() throws Exception {
+        CountingWatchable watchable = new CountingWatchable(10);
+        AtomicReference<Thread> caller = new AtomicReference<>();
+
+        Thread thread = Thread.ofVirtual().start(() -> {
+            caller.set(Thread.currentThread());
+            watchable.go(true);
+        });
+        thread.join();
+
+        assertThat(watchable.getStatus()).isEqualTo(Watchable.COMPLETED);
+        assertThat(watchable.threads).containsOnly(caller.get());
+    }
+}
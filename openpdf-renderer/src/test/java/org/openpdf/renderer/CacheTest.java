@@ -205,4 +205,48 @@ class CacheTest {
         assertThat(cache.getImage(mockPage, mockInfo1)).isSameAs(mockImage1);
         assertThat(cache.getImage(mockPage, mockInfo2)).isSameAs(mockImage2);
     }
+
+    @Test
+    void testRemovePage_RemovesItsImages() {
+        // given
+        PDFPage mockPage = mock(PDFPage.class);
+        when(mockPage.getPageNumber()).thenReturn(1);
+        ImageInfo mockInfo = mock(ImageInfo.class);
+        cache.addPage(1, mockPage);
+        cache.addImage(mockPage, mockInfo, new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+
+        // when
+        cache.removePage(1);
+
+        // then
+        assertThat(cache.getImage(mockPage, mockInfo)).isNull();
+    }
+
+    @Test
+    void testImagesAreEvictedByPixelSize() {
+        // given - room for a single 10x10 RGB image per segment
+        Cache small = new Cache(0, 4 * 400);
+        PDFPage mockPage = mock(PDFPage.class);
+        when(mockPage.getPageNumber()).thenReturn(1);
+        CacheStatistics statistics = Configuration.getInstance().getCacheStatistics();
+        long evictions = statistics.getEvictionCount();
+
+        // when
+        ImageInfo[] infos = new ImageInfo[20];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = mock(ImageInfo.class);
+            small.addImage(mockPage, infos[i], new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+        }
+
+        // then
+        int cached = 0;
+        for (ImageInfo info : infos) {
+            if (small.getImage(mockPage, info) != null) {
+                cached++;
+            }
+        }
+        assertThat(cached).isBetween(1, 4);
+        assertThat(small.getImage(mockPage, infos[infos.length - 1])).isNotNull();
+        assertThat(statistics.getEvictionCount() - evictions).isEqualTo(infos.length - cached);
+    }
 }
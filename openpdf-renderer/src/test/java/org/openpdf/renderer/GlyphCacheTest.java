@@ -0,0 +1,118 @@
+package org.openpdf.renderer;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.renderer.font.PDFGlyph;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GlyphCacheTest {
+
+    private static PDFGlyph triangle() {
+        GeneralPath path = new GeneralPath();
+        path.moveTo(0, 0);
+        path.lineTo(1, 0);
+        path.lineTo(0.5f, 1);
+        path.closePath();
+        return new PDFGlyph('A', "A", path, new Point2D.Float(1, 0));
+    }
+
+    private static BufferedImage fill(PDFGlyph glyph, AffineTransform device) {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.fill(device.createTransformedShape(glyph.getShape()));
+        g.dispose();
+        return image;
+    }
+
+    @Test
+    void drawsSameCoverageAsFillingOutline() {
+        CacheStatistics statistics = new CacheStatistics();
+        GlyphCache cache = new GlyphCache(1 << 20, statistics);
+        AffineTransform device = new AffineTransform(20, 0, 0, -20, 10, 30);
+        BufferedImage expected = fill(triangle(), device);
+
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        Rectangle2D drawn = cache.draw(g, triangle(), device, Color.BLACK, AlphaComposite.SrcOver);
+        g.dispose();
+
+        assertThat(drawn).isNotNull();
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                int expectedAlpha = expected.getRGB(x, y) >>> 24;
+                int alpha = image.getRGB(x, y) >>> 24;
+                assertThat(Math.abs(alpha - expectedAlpha)).as("alpha at %d,%d", x, y).isLessThanOrEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    void sharesBitmapsBetweenIdenticalOutlines() {
+        CacheStatistics statistics = new CacheStatistics();
+        GlyphCache cache = new GlyphCache(1 << 20, statistics);
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+
+        cache.draw(g, triangle(), new AffineTransform(10, 0, 0, 10, 5, 5), Color.BLACK, AlphaComposite.SrcOver);
+        cache.draw(g, triangle(), new AffineTransform(10, 0, 0, 10, 20, 5), Color.BLACK, AlphaComposite.SrcOver);
+        cache.draw(g, triangle(), new AffineTransform(10, 0, 0, 10, 20.5, 5), Color.BLACK, AlphaComposite.SrcOver);
+        g.dispose();
+
+        assertThat(statistics.getHitCount()).isEqualTo(1);
+        assertThat(statistics.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void leavesRotatedGlyphsToPathFilling() {
+        GlyphCache cache = new GlyphCache(1 << 20, new CacheStatistics());
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+
+        Rectangle2D drawn = cache.draw(g, triangle(), AffineTransform.getRotateInstance(0.5), Color.BLACK,
+                AlphaComposite.SrcOver);
+        g.dispose();
+
+        assertThat(drawn).isNull();
+    }
+
+    @Test
+    void fillsOutlineWhenDeviceIsUnknown() {
+        GlyphCache cache = new GlyphCache(1 << 20, new CacheStatistics());
+        Graphics2D g = mock(Graphics2D.class);
+        when(g.getDeviceConfiguration()).thenReturn(null);
+
+        Rectangle2D drawn = cache.draw(g, triangle(), new AffineTransform(20, 0, 0, -20, 10, 30), Color.BLACK,
+                AlphaComposite.SrcOver);
+
+        assertThat(drawn).isNull();
+    }
+
+    @Test
+    void glyphDrawnFromBitmapBecomesLastShape() {
+        PDFGlyph glyph = triangle();
+        GeneralPath outline = new GeneralPath(glyph.getShape());
+        AffineTransform transform = new AffineTransform();
+        PDFRenderer state = mock(PDFRenderer.class);
+        when(state.fillGlyph(glyph, transform)).thenReturn(new Rectangle2D.Double(0, 0, 1, 1));
+
+        new PDFGlyphCmd(glyph, outline, transform, PDFShapeCmd.FILL).execute(state);
+
+        verify(state).setLastShape(outline);
+        verify(state).rememberTransformation();
+    }
+}
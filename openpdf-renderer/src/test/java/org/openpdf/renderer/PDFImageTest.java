@@ -0,0 +1,104 @@
+package org.openpdf.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PDFImageTest {
+
+    private static PDFImage createImage(int width, int height, int bpc, PDFObject colorSpace, byte[] samples)
+            throws Exception {
+        return PDFImage.createImage(createImageObject(width, height, bpc, colorSpace, samples), new HashMap<>(), false);
+    }
+
+    private static PDFObject createImageObject(int width, int height, int bpc, PDFObject colorSpace, byte[] samples)
+            throws Exception {
+        Map<String, PDFObject> dict = new HashMap<>();
+        dict.put("Width", new PDFObject(width));
+        dict.put("Height", new PDFObject(height));
+        dict.put("BitsPerComponent", new PDFObject(bpc));
+        dict.put("ColorSpace", colorSpace);
+        PDFObject obj = new PDFObject(null, PDFObject.DICTIONARY, dict);
+        obj.setStream(ByteBuffer.wrap(samples));
+        return obj;
+    }
+
+    @Test
+    void cmykImage_isConvertedToOpaqueRgb() throws Exception {
+        byte[] samples = {
+                0, 0, 0, 0,
+                0, 0, 0, (byte) 255,
+                (byte) 255, 0, 0, 0,
+                0, (byte) 128, (byte) 128, 0 };
+
+        BufferedImage image = createImage(2, 2, 8, new PDFObject("DeviceCMYK"), samples).getImage();
+
+        assertThat(image.getColorModel().hasAlpha()).isFalse();
+        assertThat(image.getRGB(0, 0) & 0xffffff).isEqualTo(0xffffff);
+        int black = image.getRGB(1, 0);
+        assertThat(black & 0xff).isLessThan(64);
+        int cyan = image.getRGB(0, 1);
+        assertThat((cyan >> 16) & 0xff).isLessThan((cyan >> 8) & 0xff);
+        int red = image.getRGB(1, 1);
+        assertThat((red >> 16) & 0xff).isGreaterThan(red & 0xff);
+    }
+
+    @Test
+    void sixteenBitImage_usesHighBytes() throws Exception {
+        byte[] samples = {
+                (byte) 0xff, 0x12, 0x00, 0x34,
+                (byte) 0x80, 0x00, 0x00, 0x00 };
+
+        BufferedImage image = createImage(2, 2, 16, new PDFObject("DeviceGray"), samples).getImage();
+
+        assertThat(image.getWidth()).isEqualTo(2);
+        assertThat(image.getHeight()).isEqualTo(2);
+        assertThat(image.getRGB(0, 0) & 0xff).isEqualTo(0xff);
+        assertThat(image.getRGB(1, 0) & 0xff).isEqualTo(0);
+        assertThat(image.getRGB(0, 1) & 0xff).isBetween(0x70, 0xd0);
+    }
+
+    @Test
+    void sixteenBitImage_isDecodedAgainAfterTheCacheIsCleared() throws Exception {
+        byte[] samples = {
+                (byte) 0xff, 0x12, 0x00, 0x34,
+                (byte) 0x80, 0x00, 0x00, 0x00 };
+        PDFObject imageObj = createImageObject(2, 2, 16, new PDFObject("DeviceGray"), samples);
+        PDFImage pdfImage = PDFImage.createImage(imageObj, new HashMap<>(), false);
+        BufferedImage first = pdfImage.getImage();
+
+        imageObj.setCache(null);
+        BufferedImage second = pdfImage.getImage();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getWidth()).isEqualTo(2);
+        assertThat(second.getHeight()).isEqualTo(2);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                assertThat(second.getRGB(x, y)).isEqualTo(first.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void indexedImage_keepsPackedIndices() throws Exception {
+        PDFObject colorSpace = new PDFObject(new PDFObject[] { new PDFObject("Indexed"),
+                new PDFObject("DeviceRGB"), new PDFObject(1),
+                new PDFObject(null, PDFObject.STRING, "\u00ff\u0000\u0000\u0000\u0000\u00ff") });
+        byte[] samples = { (byte) 0b0110_0000, (byte) 0b1000_0000 };
+
+        BufferedImage image = createImage(3, 2, 1, colorSpace, samples).getImage();
+
+        assertThat(image.getType()).isEqualTo(BufferedImage.TYPE_BYTE_BINARY);
+        assertThat(image.getRGB(0, 0) & 0xffffff).isEqualTo(0xff0000);
+        assertThat(image.getRGB(1, 0) & 0xffffff).isEqualTo(0x0000ff);
+        assertThat(image.getRGB(2, 0) & 0xffffff).isEqualTo(0x0000ff);
+        assertThat(image.getRGB(0, 1) & 0xffffff).isEqualTo(0x0000ff);
+        assertThat(image.getRGB(1, 1) & 0xffffff).isEqualTo(0xff0000);
+    }
+}
@@ -0,0 +1,196 @@
+package org.openpdf.renderer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageRasterizerTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private PDFFile openHelloWorld() throws Exception {
+        return open("HelloWorldMeta.pdf");
+    }
+
+    private PDFFile open(String name) throws Exception {
+        URL resourceUrl = getClass().getClassLoader().getResource(name);
+        assertThat(resourceUrl).isNotNull();
+        try (FileInputStream fis = new FileInputStream(new File(resourceUrl.getFile()));
+             FileChannel fc = fis.getChannel()) {
+            ByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+            return new PDFFile(bb);
+        }
+    }
+
+    @Test
+    void renderPage_scalesPageToResolution() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+        PDFPage page = pdfFile.getPage(1, true);
+
+        BufferedImage image = pdfFile.renderPage(1, 144);
+
+        assertThat(image.getWidth()).isEqualTo((int) Math.ceil(page.getWidth() * 2));
+        assertThat(image.getHeight()).isEqualTo((int) Math.ceil(page.getHeight() * 2));
+        assertThat(image.getRGB(0, 0) & 0xFFFFFF).isEqualTo(0xFFFFFF);
+    }
+
+    @Test
+    void renderPages_matchesSequentialRendering() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+        int numPages = pdfFile.getNumPages();
+        BufferedImage expected = openHelloWorld().renderPage(1, 72);
+
+        List<BufferedImage> images;
+        try (Stream<BufferedImage> pages = pdfFile.renderPages(1, numPages, 72, executor, 1)) {
+            images = pages.toList();
+        }
+
+        assertThat(images).hasSize(numPages);
+        BufferedImage first = images.get(0);
+        assertThat(first.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(first.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertThat(first.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void renderPages_rendersPagesConcurrentlyLikeSequentialRendering() throws Exception {
+        PDFFile sequential = open("MultiPage.pdf");
+        int numPages = sequential.getNumPages();
+        assertThat(numPages).isGreaterThan(4);
+        List<BufferedImage> expected = new ArrayList<>();
+        for (int i = 1; i <= numPages; i++) {
+            expected.add(sequential.renderPage(i, 96));
+        }
+
+        // a new file every round, so that the pages share cold font and cmap caches
+        for (int round = 0; round < 5; round++) {
+            List<BufferedImage> images;
+            try (Stream<BufferedImage> pages = open("MultiPage.pdf").renderPages(1, numPages, 96, executor, 4)) {
+                images = pages.toList();
+            }
+
+            assertThat(images).hasSize(numPages);
+            for (int i = 0; i < numPages; i++) {
+                assertSameImage(images.get(i), expected.get(i));
+            }
+        }
+    }
+
+    @Test
+    void renderPages_rejectsInvalidRange() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+
+        assertThatThrownBy(() -> pdfFile.renderPages(0, 1, 72, executor))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pdfFile.renderPages(1, pdfFile.getNumPages() + 1, 72, executor))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void renderPageTiles_matchesFullPage() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+        BufferedImage expected = openHelloWorld().renderPage(1, 100);
+        BufferedImage sequential = new BufferedImage(expected.getWidth(), expected.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        BufferedImage parallel = new BufferedImage(expected.getWidth(), expected.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+
+        pdfFile.renderPageTiles(1, 100, 150, 100, copyInto(sequential));
+        pdfFile.renderPageTiles(1, 100, 150, 100, copyInto(parallel), executor, 3);
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertThat(sequential.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+                assertThat(parallel.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void renderPageTiles_deliversTilesInRowMajorOrder() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+        List<String> events = new ArrayList<>();
+
+        pdfFile.renderPageTiles(1, 72, 400, 300, new TileSink() {
+            @Override
+            public void start(int width, int height) {
+                events.add("start " + width + "x" + height);
+            }
+
+            @Override
+            public void tile(int x, int y, BufferedImage tile) {
+                events.add(x + "," + y + " " + tile.getWidth() + "x" + tile.getHeight());
+            }
+
+            @Override
+            public void finish() {
+                events.add("finish");
+            }
+        }, executor, 2);
+
+        PDFPage page = pdfFile.getPage(1);
+        int width = (int) Math.ceil(page.getWidth());
+        int height = (int) Math.ceil(page.getHeight());
+        assertThat(events).containsExactly(
+                "start " + width + "x" + height,
+                "0,0 400x300", "400,0 " + (width - 400) + "x300",
+                "0,300 400x300", "400,300 " + (width - 400) + "x300",
+                "0,600 400x" + (height - 600), "400,600 " + (width - 400) + "x" + (height - 600),
+                "finish");
+    }
+
+    @Test
+    void renderPageTiles_propagatesSinkFailure() throws Exception {
+        PDFFile pdfFile = openHelloWorld();
+
+        assertThatThrownBy(() -> pdfFile.renderPageTiles(1, 72, 100, 100, (x, y, tile) -> {
+            throw new IOException("disk full");
+        }, executor, 4)).isInstanceOf(IOException.class).hasMessage("disk full");
+    }
+
+    private static void assertSameImage(BufferedImage image, BufferedImage expected) {
+        assertThat(image.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(image.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (image.getRGB(x, y) != expected.getRGB(x, y)) {
+                    assertThat(image.getRGB(x, y)).as("pixel at %d,%d", x, y).isEqualTo(expected.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    private static TileSink copyInto(BufferedImage target) {
+        return (x, y, tile) -> target.getGraphics().drawImage(tile, x, y, null);
+    }
+}
@@ -0,0 +1,65 @@
+package org.openpdf.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondMaxWeight() {
+        CacheStatistics statistics = new CacheStatistics();
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 1, String::length, statistics);
+
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        cache.put("c", "cccc");
+
+        assertThat(cache.get("a")).isEqualTo("aaaa");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("cccc");
+        assertThat(cache.weight()).isEqualTo(8);
+        assertThat(statistics.getEvictionCount()).isEqualTo(1);
+        assertThat(statistics.getHitCount()).isEqualTo(3);
+        assertThat(statistics.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reweighsEntriesOnAccess() {
+        AtomicLong weight = new AtomicLong(1);
+        WeightedLruCache<String, Object> cache = new WeightedLruCache<>(10, 1, v -> weight.get(),
+                new CacheStatistics());
+        cache.put("old", new Object());
+        cache.put("growing", new Object());
+
+        weight.set(10);
+        cache.get("growing");
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(10);
+        assertThat(cache.get("growing")).isNotNull();
+    }
+
+    @Test
+    void keepsSingleEntryHeavierThanLimit() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(2, 1, String::length, new CacheStatistics());
+
+        cache.put("a", "aaaa");
+
+        assertThat(cache.get("a")).isEqualTo("aaaa");
+    }
+
+    @Test
+    void unlimitedWhenMaxWeightIsNotPositive() {
+        WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(0, 4, String::length, new CacheStatistics());
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value");
+        }
+
+        assertThat(cache.size()).isEqualTo(1000);
+    }
+}
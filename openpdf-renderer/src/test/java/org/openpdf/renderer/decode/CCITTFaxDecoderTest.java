@@ -0,0 +1,167 @@
+package org.openpdf.renderer.decode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.IIOImage;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.plugins.tiff.BaselineTIFFTagSet;
+import javax.imageio.plugins.tiff.TIFFDirectory;
+import javax.imageio.plugins.tiff.TIFFField;
+import javax.imageio.plugins.tiff.TIFFTag;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CCITTFaxDecoderTest {
+
+    private static final int WIDTH = 1728;
+    private static final int HEIGHT = 600;
+
+    /**
+     * Draws a page resembling a scanned letter, with text, rules and noise.
+     */
+    static BufferedImage createPage(int width, int height, long seed) {
+        BufferedImage page = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D g = page.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.BLACK);
+            g.setFont(new Font(Font.SERIF, Font.PLAIN, 28));
+            Random random = new Random(seed);
+            for (int y = 40; y < height; y += 36) {
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < 70; i++) {
+                    line.append((char) ('a' + random.nextInt(26)));
+                    if (random.nextInt(6) == 0) {
+                        line.append(' ');
+                    }
+                }
+                g.drawString(line.toString(), 60, y);
+            }
+            g.fillRect(60, height / 2, width - 120, 3);
+            for (int i = 0; i < 2000; i++) {
+                page.setRGB(random.nextInt(width), random.nextInt(height), 0);
+            }
+        } finally {
+            g.dispose();
+        }
+        return page;
+    }
+
+    /**
+     * Encodes the page with the JDK TIFF writer into a single strip and
+     * returns the compressed strip.
+     */
+    static byte[] encode(BufferedImage page, String compression) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionType(compression);
+
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(page), param);
+        TIFFDirectory directory = TIFFDirectory.createFromMetadata(metadata);
+        directory.addTIFFField(new TIFFField(BaselineTIFFTagSet.getInstance().getTag(BaselineTIFFTagSet.TAG_ROWS_PER_STRIP),
+                TIFFTag.TIFF_LONG, 1, new long[] { page.getHeight() }));
+        metadata = directory.getAsMetadata();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(page, null, metadata), param);
+        } finally {
+            writer.dispose();
+        }
+
+        ImageReader reader = ImageIO.getImageReadersByFormatName("tiff").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            reader.setInput(in);
+            TIFFDirectory written = TIFFDirectory.createFromMetadata(reader.getImageMetadata(0));
+            assertThat(written.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_OFFSETS).getCount()).isEqualTo(1);
+            int offset = (int) written.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_OFFSETS).getAsLong(0);
+            int length = (int) written.getTIFFField(BaselineTIFFTagSet.TAG_STRIP_BYTE_COUNTS).getAsLong(0);
+            return Arrays.copyOfRange(bytes.toByteArray(), offset, offset + length);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * @return the page as packed rows with black pixels set to 1
+     */
+    static byte[] blackIsOne(BufferedImage page) {
+        byte[] data = ((DataBufferByte) page.getRaster().getDataBuffer()).getData().clone();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ~data[i];
+        }
+        int stride = (page.getWidth() + 7) / 8;
+        int padding = stride * 8 - page.getWidth();
+        if (padding > 0) {
+            for (int i = stride - 1; i < data.length; i += stride) {
+                data[i] &= (byte) (0xff << padding);
+            }
+        }
+        return data;
+    }
+
+    private static byte[] decode(byte[] encoded, int k) {
+        byte[] decoded = new byte[HEIGHT * ((WIDTH + 7) / 8)];
+        CCITTFaxDecoder decoder = new CCITTFaxDecoder(1, WIDTH, HEIGHT);
+        if (k < 0) {
+            decoder.decodeT6(decoded, encoded, 0, HEIGHT);
+        } else if (k == 0) {
+            decoder.decodeT41D(decoded, encoded, 0, HEIGHT);
+        } else {
+            decoder.decodeT42D(decoded, encoded, 0, HEIGHT);
+        }
+        return decoded;
+    }
+
+    @Test
+    void decodeT6_matchesEncodedPage() throws IOException {
+        BufferedImage page = createPage(WIDTH, HEIGHT, 1);
+
+        byte[] decoded = decode(encode(page, "CCITT T.6"), -1);
+
+        assertThat(decoded).isEqualTo(blackIsOne(page));
+    }
+
+    @Test
+    void decodeT4_matchesEncodedPage() throws IOException {
+        BufferedImage page = createPage(WIDTH, HEIGHT, 2);
+
+        byte[] decoded = decode(encode(page, "CCITT T.4"), 1);
+
+        assertThat(decoded).isEqualTo(blackIsOne(page));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 7, 8, 9, 17, 100 })
+    void decodeT6_handlesWidthsNotMultipleOfEight(int width) throws IOException {
+        BufferedImage page = createPage(width, 40, width);
+        byte[] encoded = encode(page, "CCITT T.6");
+
+        byte[] decoded = new byte[40 * ((width + 7) / 8)];
+        new CCITTFaxDecoder(1, width, 40).decodeT6(decoded, encoded, 0, 40);
+
+        assertThat(decoded).isEqualTo(blackIsOne(page));
+    }
+}
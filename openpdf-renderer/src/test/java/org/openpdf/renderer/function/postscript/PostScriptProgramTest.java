@@ -0,0 +1,82 @@
+package org.openpdf.renderer.function.postscript;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class PostScriptProgramTest {
+
+    private static float[] run(String code, int numOutputs, float... inputs) {
+        float[] outputs = new float[numOutputs];
+        PostScriptProgram.compile(code).execute(inputs, 0, inputs.length, outputs, 0, numOutputs,
+                new PostScriptProgram.OperandStack());
+        return outputs;
+    }
+
+    @Test
+    void evaluatesArithmetic() {
+        assertThat(run("{ 2 mul 1 add }", 1, 3f)).containsExactly(7f);
+        assertThat(run("{ 2 exp }", 1, 3f)).containsExactly(9f);
+        assertThat(run("{ 7 2 idiv 7 2 mod }", 2)).containsExactly(3f, 1f);
+        assertThat(run("{ truncate exch round }", 2, 2.5f, -1.7f)).containsExactly(-1f, 3f);
+        assertThat(run("{ 90 sin 0 cos 0 -1 atan }", 3)[2]).isEqualTo(180f);
+    }
+
+    @Test
+    void evaluatesConditionals() {
+        String code = "{ dup 0.5 gt { 1 exch sub } if dup 0.25 lt { pop 0 } { 2 mul } ifelse }";
+
+        assertThat(run(code, 1, 0.75f)[0]).isCloseTo(0.5f, within(1e-6f));
+        assertThat(run(code, 1, 0.1f)).containsExactly(0f);
+        assertThat(run(code, 1, 0.3f)[0]).isCloseTo(0.6f, within(1e-6f));
+    }
+
+    @Test
+    void evaluatesNestedConditionalsAndBooleans() {
+        String code = "{ dup 0 lt { pop 0 } { dup 1 gt { pop 1 } if } ifelse true not { 5 } if }";
+
+        assertThat(run(code, 1, -3f)).containsExactly(0f);
+        assertThat(run(code, 1, 4f)).containsExactly(1f);
+        assertThat(run(code, 1, 0.5f)).containsExactly(0.5f);
+    }
+
+    @Test
+    void evaluatesStackOperators() {
+        assertThat(run("{ 3 1 roll }", 3, 1f, 2f, 3f)).containsExactly(3f, 1f, 2f);
+        assertThat(run("{ 3 -1 roll }", 3, 1f, 2f, 3f)).containsExactly(2f, 3f, 1f);
+        assertThat(run("{ 2 copy }", 4, 1f, 2f)).containsExactly(1f, 2f, 1f, 2f);
+        assertThat(run("{ 1 index exch pop }", 2, 1f, 2f)).containsExactly(1f, 1f);
+    }
+
+    @Test
+    void evaluatesBitwiseOperators() {
+        assertThat(run("{ 12 10 and 12 10 or 12 10 xor 1 3 bitshift 8 -2 bitshift 0 not }", 6))
+                .containsExactly(8f, 14f, 6f, 8f, 2f, -1f);
+    }
+
+    @Test
+    void reusesStackAcrossEvaluations() {
+        PostScriptProgram program = PostScriptProgram.compile("{ 0.5 mul dup }");
+        PostScriptProgram.OperandStack stack = new PostScriptProgram.OperandStack();
+        float[] outputs = new float[4];
+
+        program.execute(new float[] {2f, 4f}, 0, 1, outputs, 0, 2, stack);
+        program.execute(new float[] {2f, 4f}, 1, 1, outputs, 2, 2, stack);
+
+        assertThat(outputs).containsExactly(1f, 1f, 2f, 2f);
+    }
+
+    @Test
+    void rejectsInvalidPrograms() {
+        assertThatThrownBy(() -> PostScriptProgram.compile("{ 1 foo }"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PostScriptProgram.compile("{ 1 { 2 } }"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> run("{ add }", 1, 1f))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> run("{ dup }", 1, 1f))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package org.openpdf.renderer.pattern;
+
+import org.junit.jupiter.api.Test;
+import org.openpdf.renderer.PDFObject;
+import org.openpdf.renderer.colorspace.PDFColorSpace;
+import org.openpdf.renderer.function.PDFFunction;
+
+import java.awt.PaintContext;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.Raster;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShaderType2Test {
+
+    private static PDFObject array(double... values) throws Exception {
+        Object[] items = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            items[i] = values[i];
+        }
+        return new PDFObject(items);
+    }
+
+    /** an exponential function from red to blue */
+    private static PDFFunction redToBlue() throws Exception {
+        HashMap<String, PDFObject> dict = new HashMap<>();
+        dict.put("FunctionType", new PDFObject(2.0));
+        dict.put("Domain", array(0, 1));
+        dict.put("C0", array(1, 0, 0));
+        dict.put("C1", array(0, 0, 1));
+        dict.put("N", new PDFObject(1.0));
+        return PDFFunction.getFunction(new PDFObject(dict));
+    }
+
+    private static ShaderType2 horizontalShader(boolean extend) throws Exception {
+        ShaderType2 shader = new ShaderType2();
+        shader.setColorSpace(PDFColorSpace.getColorSpace(PDFColorSpace.COLORSPACE_RGB));
+        shader.setAxisStart(new Point2D.Float(0, 0));
+        shader.setAxisEnd(new Point2D.Float(100, 0));
+        shader.setFunctions(new PDFFunction[] {redToBlue()});
+        shader.setExtendStart(extend);
+        shader.setExtendEnd(extend);
+        return shader;
+    }
+
+    private static Raster paint(ShaderType2 shader, int x, int w) {
+        PaintContext context = shader.new Type2Paint().createContext(null, new Rectangle(x, 0, w, 1), null,
+                new AffineTransform(), null);
+        return context.getRaster(x, 0, w, 1);
+    }
+
+    @Test
+    void paintsColorsFromLookupTable() throws Exception {
+        ShaderType2 shader = horizontalShader(false);
+
+        Raster raster = paint(shader, 0, 101);
+
+        assertThat(raster.getPixel(0, 0, (int[]) null)).containsExactly(255, 0, 0, 255);
+        assertThat(raster.getPixel(100, 0, (int[]) null)).containsExactly(0, 0, 255, 255);
+        int[] middle = raster.getPixel(50, 0, (int[]) null);
+        assertThat(middle[0]).isBetween(126, 128);
+        assertThat(middle[2]).isBetween(126, 128);
+    }
+
+    @Test
+    void extendsOnlyWhenRequested() throws Exception {
+        Raster clipped = paint(horizontalShader(false), -10, 130);
+        Raster extended = paint(horizontalShader(true), -10, 130);
+
+        assertThat(clipped.getPixel(-5, 0, (int[]) null)).containsExactly(0, 0, 0, 0);
+        assertThat(clipped.getPixel(115, 0, (int[]) null)).containsExactly(0, 0, 0, 0);
+        assertThat(extended.getPixel(-5, 0, (int[]) null)).containsExactly(255, 0, 0, 255);
+        assertThat(extended.getPixel(115, 0, (int[]) null)).containsExactly(0, 0, 255, 255);
+    }
+
+    @Test
+    void buildsColorTableOnce() throws Exception {
+        ShaderType2 shader = horizontalShader(false);
+
+        assertThat(shader.getColorTable()).isSameAs(shader.getColorTable());
+    }
+}
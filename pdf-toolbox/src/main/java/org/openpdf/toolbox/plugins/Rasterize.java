@@ -0,0 +1,309 @@
+package org.openpdf.toolbox.plugins;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.swing.JInternalFrame;
+import org.openpdf.renderer.PDFFile;
+import org.openpdf.toolbox.AbstractTool;
+import org.openpdf.toolbox.arguments.AbstractArgument;
+import org.openpdf.toolbox.arguments.FileArgument;
+import org.openpdf.toolbox.arguments.FloatArgument;
+import org.openpdf.toolbox.arguments.IntegerArgument;
+import org.openpdf.toolbox.arguments.OptionArgument;
+import org.openpdf.toolbox.arguments.StringArgument;
+
+/**
+ * This tool renders the pages of one or more PDF files to PNG or JPEG images.
+ * <p>
+ * The source may be a single PDF file or a directory, in which case every PDF
+ * file in it is rendered. Pages are rendered and encoded on all processors.
+ * Each document is parsed once, so its fonts and images are shared by all its
+ * pages. The images are written to the destination directory as
+ * {@code <name>-<page>.<format>}. When called from the command line the tool
+ * exits with status 1 if any page failed, so it can be used in scripts.
+ */
+public class Rasterize extends AbstractTool {
+
+    static {
+        addVersion("$Id: Rasterize.java $");
+    }
+
+    /**
+     * Constructs a Rasterize object.
+     */
+    public Rasterize() {
+        arguments.add(new FileArgument(this, "srcfile", "The PDF file or a directory of PDF files", false));
+        arguments.add(new FileArgument(this, "destdir", "The directory the images are written to", true));
+        arguments.add(new FloatArgument(this, "dpi", "The resolution of the images (default 150)"));
+        OptionArgument oa = new OptionArgument(this, "format", "The image format");
+        oa.addOption("PNG", "png");
+        oa.addOption("JPEG", "jpg");
+        arguments.add(oa);
+        arguments.add(new StringArgument(this, "pages",
+                "The pages to render, for instance 1-10, 5 or 3- (default all pages)"));
+        arguments.add(new IntegerArgument(this, "threads",
+                "The number of pages rendered at the same time (default the number of processors)"));
+    }
+
+    /**
+     * Renders the pages of PDF files to images.
+     *
+     * @param args srcfile destdir [dpi] [format] [pages] [threads]
+     */
+    public static void main(String[] args) {
+        Rasterize tool = new Rasterize();
+        if (args.length < 2) {
+            System.err.println(tool.getUsage());
+        }
+        tool.setMainArguments(args);
+        Statistics statistics = tool.rasterize();
+        if (statistics == null || statistics.failures() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @see AbstractTool#createFrame()
+     */
+    protected void createFrame() {
+        internalFrame = new JInternalFrame("Rasterize", true, false, true);
+        internalFrame.setSize(300, 80);
+        internalFrame.setJMenuBar(getMenubar());
+        System.out.println("=== Rasterize OPENED ===");
+    }
+
+    /**
+     * @see AbstractTool#execute()
+     */
+    public void execute() {
+        rasterize();
+    }
+
+    /**
+     * Renders the pages selected by the arguments of the tool and prints the
+     * statistics.
+     *
+     * @return the statistics, or null if the arguments are invalid
+     */
+    Statistics rasterize() {
+        try {
+            if (getValue("srcfile") == null) {
+                throw new InstantiationException("You need to choose a source file or directory");
+            }
+            File src = (File) getValue("srcfile");
+            if (getValue("destdir") == null) {
+                throw new InstantiationException("You need to choose a destination directory");
+            }
+            File destdir = (File) getValue("destdir");
+            float dpi = getValue("dpi") == null ? 150 : Float.parseFloat((String) getValue("dpi"));
+            String format = getValue("format") == null ? "png" : (String) getValue("format");
+            String pages = (String) getValue("pages");
+            int threads = getValue("threads") == null
+                    ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt((String) getValue("threads"));
+
+            Statistics statistics = rasterize(listSources(src), destdir, pages, dpi, format, threads);
+            System.out.println(statistics);
+            return statistics;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Renders pages of several PDF files to images.
+     *
+     * @param sources the PDF files
+     * @param destdir the directory the images are written to
+     * @param pages the page range, for instance {@code 1-10}, {@code 5} or
+     *              {@code 3-}, or null for all pages
+     * @param dpi     the resolution of the images
+     * @param format  {@code png} or {@code jpg}
+     * @param threads the number of pages rendered at the same time
+     * @return the number of rendered pages and the time it took
+     * @throws IOException if the destination directory cannot be created
+     */
+    public static Statistics rasterize(List<File> sources, File destdir, String pages, float dpi, String format,
+            int threads) throws IOException {
+        if (!destdir.isDirectory() && !destdir.mkdirs()) {
+            throw new IOException("Cannot create directory " + destdir);
+        }
+        if (dpi <= 0) {
+            throw new IllegalArgumentException("dpi must be positive: " + dpi);
+        }
+        String suffix = format.toLowerCase(Locale.ROOT);
+        if (!suffix.equals("png") && !suffix.equals("jpg")) {
+            throw new IllegalArgumentException("Unsupported image format: " + format);
+        }
+        int workers = Math.max(1, threads);
+        AtomicInteger rendered = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int documents = 0;
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        // bounds the pages waiting for a thread, so the next documents are
+        // only opened when the current ones are almost done
+        Semaphore queued = new Semaphore(workers * 2);
+        try {
+            for (File source : sources) {
+                PDFFile pdfFile;
+                try {
+                    pdfFile = open(source);
+                } catch (IOException e) {
+                    System.err.println(source + ": " + e.getMessage());
+                    failed.incrementAndGet();
+                    continue;
+                }
+                documents++;
+                int numPages = pdfFile.getNumPages();
+                int[] range = parseRange(pages, numPages);
+                String name = baseName(source);
+                int digits = Math.max(3, String.valueOf(numPages).length());
+                for (int pagenum = range[0]; pagenum <= range[1]; pagenum++) {
+                    File dest = new File(destdir, String.format("%s-%0" + digits + "d.%s", name, pagenum, suffix));
+                    int page = pagenum;
+                    queued.acquire();
+                    executor.execute(() -> {
+                        try {
+                            BufferedImage image = pdfFile.renderPage(page, dpi);
+                            if (!ImageIO.write(image, suffix, dest)) {
+                                throw new IOException("No image writer for " + suffix);
+                            }
+                            rendered.incrementAndGet();
+                        } catch (Exception e) {
+                            System.err.println(source + " page " + page + ": " + e.getMessage());
+                            failed.incrementAndGet();
+                        } finally {
+                            queued.release();
+                        }
+                    });
+                }
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering pages", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Statistics(documents, rendered.get(), failed.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * @param src a PDF file or a directory
+     * @return the file, or the PDF files in the directory sorted by name
+     */
+    static List<File> listSources(File src) {
+        if (!src.isDirectory()) {
+            return List.of(src);
+        }
+        File[] files = src.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".pdf"));
+        if (files == null) {
+            return List.of();
+        }
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * @param pages    a page range such as {@code 1-10}, {@code 5} or
+     *                 {@code 3-}, or null for all pages
+     * @param numPages the number of pages of the document
+     * @return the first and last page, clipped to the document
+     */
+    static int[] parseRange(String pages, int numPages) {
+        int first = 1;
+        int last = numPages;
+        if (pages != null && !pages.isBlank() && !pages.trim().equalsIgnoreCase("all")) {
+            String range = pages.trim();
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                first = Integer.parseInt(range);
+                last = first;
+            } else {
+                if (dash > 0) {
+                    first = Integer.parseInt(range.substring(0, dash).trim());
+                }
+                if (dash < range.length() - 1) {
+                    last = Integer.parseInt(range.substring(dash + 1).trim());
+                }
+            }
+        }
+        return new int[]{Math.max(1, first), Math.min(numPages, last)};
+    }
+
+    private static PDFFile open(File source) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(source, "r");
+                FileChannel channel = raf.getChannel()) {
+            // the mapping stays valid after the channel is closed
+            return new PDFFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static String baseName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * @param arg StringArgument
+     * @see AbstractTool#valueHasChanged(AbstractArgument)
+     */
+    public void valueHasChanged(AbstractArgument arg) {
+        if (internalFrame == null) {
+            // if the internal frame is null, the tool was called from the command line
+            return;
+        }
+        // represent the changes of the argument in the internal frame
+    }
+
+    /**
+     * @return File
+     * @throws InstantiationException on error
+     * @see AbstractTool#getDestPathPDF()
+     */
+    protected File getDestPathPDF() throws InstantiationException {
+        throw new InstantiationException("There is no file to show.");
+    }
+
+    /**
+     * The outcome of a run of the tool.
+     *
+     * @param documents     the number of documents that could be opened
+     * @param pages         the number of pages written
+     * @param failures   the number of pages and documents that could not be rendered
+     * @param elapsedNanos  the wall clock time of the run
+     */
+    public record Statistics(int documents, int pages, int failures, long elapsedNanos) {
+
+        /**
+         * @return the number of pages written per second
+         */
+        public double pagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : pages * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Rendered %d pages of %d documents in %.2f s (%.1f pages/s), %d failed",
+                    pages, documents, elapsedNanos / 1e9, pagesPerSecond(), failures);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.openpdf.toolbox.plugins;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RasterizeTest {
+
+    @Test
+    void shouldParsePageRanges() {
+        assertThat(Rasterize.parseRange(null, 12)).containsExactly(1, 12);
+        assertThat(Rasterize.parseRange("all", 12)).containsExactly(1, 12);
+        assertThat(Rasterize.parseRange("5", 12)).containsExactly(5, 5);
+        assertThat(Rasterize.parseRange("3-", 12)).containsExactly(3, 12);
+        assertThat(Rasterize.parseRange("-4", 12)).containsExactly(1, 4);
+        assertThat(Rasterize.parseRange("2-20", 12)).containsExactly(2, 12);
+    }
+
+    @Test
+    void shouldRenderAllPdfFilesOfADirectory(@TempDir Path dir) throws IOException {
+        // GIVEN
+        Path src = Files.createDirectory(dir.resolve("src"));
+        Files.copy(Paths.get("src/test/resources/layers.pdf"), src.resolve("a.pdf"));
+        Files.copy(Paths.get("src/test/resources/layers.pdf"), src.resolve("b.pdf"));
+        Files.writeString(src.resolve("notes.txt"), "not a PDF");
+        File dest = dir.resolve("images").toFile();
+
+        // WHEN
+        List<File> sources = Rasterize.listSources(src.toFile());
+        Rasterize.Statistics statistics = Rasterize.rasterize(sources, dest, "1", 36, "png", 2);
+
+        // THEN
+        assertThat(sources).extracting(File::getName).containsExactly("a.pdf", "b.pdf");
+        assertThat(statistics.documents()).isEqualTo(2);
+        assertThat(statistics.pages()).isEqualTo(2);
+        assertThat(statistics.failures()).isZero();
+        assertThat(dest.list()).containsExactlyInAnyOrder("a-001.png", "b-001.png");
+        BufferedImage image = ImageIO.read(new File(dest, "a-001.png"));
+        assertThat(image.getWidth()).isPositive();
+    }
+
+    @Test
+    void shouldCountDocumentsThatCannotBeOpened(@TempDir Path dir) throws IOException {
+        // GIVEN
+        File broken = dir.resolve("broken.pdf").toFile();
+        Files.writeString(broken.toPath(), "not a PDF");
+
+        // WHEN
+        Rasterize.Statistics statistics = Rasterize.rasterize(List.of(broken), dir.toFile(), null, 72, "jpg", 1);
+
+        // THEN
+        assertThat(statistics.documents()).isZero();
+        assertThat(statistics.failures()).isEqualTo(1);
+    }
+}